@@ -0,0 +1,94 @@
+package com.oliveryasuna.vaadin.reactrenderer;
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonValue;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The values of a dictionary-encoded property in one container, by code.
+ * <p>
+ * Each distinct value is assigned the next code when first encoded.
+ * The dictionary tracks how many values the client knows about, so only
+ * new values are sent in a {@link #drainDelta() delta}, while a
+ * {@link #drainSnapshot() snapshot} resends all of them, e.g., when the
+ * container is reattached.
+ *
+ * @see PropertyEncoding#dictionaryEncoded()
+ */
+final class PropertyDictionary implements Serializable {
+
+    // Static fields
+    //--------------------------------------------------
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    // Fields
+    //--------------------------------------------------
+
+    // Codes by the JSON form of their value
+    private final Map<String, Integer> codes;
+    private final List<JsonValue> values;
+
+    // Number of values the client knows about
+    private int sentSize;
+
+    // Constructors
+    //--------------------------------------------------
+
+    PropertyDictionary() {
+        super();
+
+        this.codes = new HashMap<>();
+        this.values = new ArrayList<>();
+    }
+
+    // Methods
+    //--------------------------------------------------
+
+    int encode(final JsonValue value) {
+        return codes.computeIfAbsent(value.toJson(), ignored -> {
+            values.add(value);
+
+            return values.size() - 1;
+        });
+    }
+
+    JsonArray drainSnapshot() {
+        sentSize = values.size();
+
+        return toJson(0);
+    }
+
+    JsonArray drainDelta() {
+        final JsonArray delta = toJson(sentSize);
+        sentSize = values.size();
+
+        return delta;
+    }
+
+    private JsonArray toJson(final int from) {
+        final JsonArray array = Json.createArray();
+        for(int i = from; i < values.size(); i++) {
+            array.set(i - from, values.get(i));
+        }
+
+        return array;
+    }
+
+    int size() {
+        return values.size();
+    }
+
+    int sentSize() {
+        return sentSize;
+    }
+
+}
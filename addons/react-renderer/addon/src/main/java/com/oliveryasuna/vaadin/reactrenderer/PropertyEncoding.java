@@ -0,0 +1,58 @@
+package com.oliveryasuna.vaadin.reactrenderer;
+
+/**
+ * How the values of a {@link ReactRenderer} property are encoded in the item
+ * data sent to the client.
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * import static com.oliveryasuna.vaadin.reactrenderer.PropertyEncoding.dictionaryEncoded;
+ *
+ * renderer.withProperty("status", Person::getStatus, dictionaryEncoded());
+ * }</pre>
+ *
+ * @see ReactRenderer#withProperty(String, com.vaadin.flow.function.ValueProvider, PropertyEncoding)
+ */
+public enum PropertyEncoding {
+
+    /**
+     * Each value is sent as is with every item.
+     */
+    PLAIN,
+
+    /**
+     * Each distinct value is sent once per container, and items carry small
+     * integer codes that the client resolves before the template sees them.
+     * <p>
+     * Intended for low-cardinality, enum-like values, e.g., a status column
+     * that repeats the same few strings across thousands of rows.
+     * The dictionary grows with every distinct value and is kept for the
+     * lifetime of the renderer in the container, so it is not suitable for
+     * high-cardinality values.
+     */
+    DICTIONARY;
+
+    // Static methods
+    //--------------------------------------------------
+
+    /**
+     * Returns the plain encoding.
+     *
+     * @return
+     *     {@link #PLAIN}
+     */
+    public static PropertyEncoding plain() {
+        return PLAIN;
+    }
+
+    /**
+     * Returns the dictionary encoding.
+     *
+     * @return
+     *     {@link #DICTIONARY}
+     */
+    public static PropertyEncoding dictionaryEncoded() {
+        return DICTIONARY;
+    }
+
+}
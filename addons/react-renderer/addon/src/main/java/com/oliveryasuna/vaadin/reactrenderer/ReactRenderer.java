@@ -9,18 +9,32 @@ import com.vaadin.flow.data.renderer.Renderer;
 import com.vaadin.flow.data.renderer.Rendering;
 import com.vaadin.flow.dom.Element;
 import com.vaadin.flow.function.SerializableBiConsumer;
+import com.vaadin.flow.function.SerializableBiFunction;
 import com.vaadin.flow.function.SerializableConsumer;
+import com.vaadin.flow.function.SerializableFunction;
+import com.vaadin.flow.function.SerializableSupplier;
 import com.vaadin.flow.function.ValueProvider;
 import com.vaadin.flow.internal.JsonSerializer;
 import com.vaadin.flow.internal.JsonUtils;
 import com.vaadin.flow.internal.StateTree;
 import com.vaadin.flow.internal.nodefeature.ReturnChannelMap;
 import com.vaadin.flow.internal.nodefeature.ReturnChannelRegistration;
+import com.vaadin.flow.server.Command;
 import com.vaadin.flow.shared.Registration;
+import elemental.json.Json;
 import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+import elemental.json.JsonValue;
 
+import java.io.Serial;
+import java.io.Serializable;
 import java.util.*;
-import java.util.regex.Pattern;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * A {@link Renderer} that uses React to render given model objects in
@@ -50,7 +64,9 @@ import java.util.regex.Pattern;
  *   <li>
  *     Handle client-side events using
  *     {@link #withFunction(String, SerializableConsumer)} or
- *     {@link #withFunction(String, SerializableBiConsumer)}
+ *     {@link #withFunction(String, SerializableBiConsumer)}, or off the
+ *     session lock using
+ *     {@link #withAsyncFunction(String, SerializableBiFunction)}
  *   </li>
  * </ul>
  * <p>
@@ -93,32 +109,50 @@ public class ReactRenderer<SOURCE> extends Renderer<SOURCE> {
     // Static fields
     //--------------------------------------------------
 
-    private static final Pattern ALPHANUMERIC_PATTERN = Pattern.compile("^[a-zA-Z0-9]+$");
+    static final String ASYNC_THREADS_PROPERTY = "reactrenderer.asyncExecutor.threads";
+    static final String ASYNC_QUEUE_CAPACITY_PROPERTY = "reactrenderer.asyncExecutor.queueCapacity";
+
+    private static volatile Executor asyncExecutor;
 
     // Fields
     //--------------------------------------------------
 
-    protected final String templateExpression;
-    protected final boolean jsx;
+    protected ReactRendererDefinition<SOURCE> definition;
 
-    protected final String propertyNamespace;
+    // Whether the definition was created for this renderer alone, rather than
+    // passed in and possibly shared with other renderers
+    private boolean ownsDefinition;
 
-    protected final Map<String, ValueProvider<SOURCE, ?>> valueProviders;
-    protected final Map<String, SerializableBiConsumer<SOURCE, JsonArray>> clientCallables;
+    private final List<Binding> bindings;
 
     // Constructors
     //--------------------------------------------------
 
-    protected ReactRenderer(final String templateExpression, final boolean jsx) {
+    protected ReactRenderer(final ReactRendererDefinition<SOURCE> definition) {
         super();
 
-        this.templateExpression = templateExpression;
-        this.jsx = jsx;
+        this.definition = definition;
 
-        this.propertyNamespace = "rr_%s_".formatted(UUID.randomUUID().toString().replace("-", "").substring(0, 16));
+        this.bindings = new ArrayList<>();
+    }
+
+    /**
+     * Creates a new {@link ReactRenderer} with its own definition.
+     *
+     * @param templateExpression
+     *     The React template expression
+     * @param jsx
+     *     Whether the template should be transpiled from JSX
+     *
+     * @deprecated
+     *     Use {@link #ReactRenderer(ReactRendererDefinition)} with
+     *     {@link ReactRendererDefinition#builder(String, boolean)}.
+     */
+    @Deprecated(forRemoval = true)
+    protected ReactRenderer(final String templateExpression, final boolean jsx) {
+        this(ReactRendererDefinition.<SOURCE>builder(templateExpression, jsx).build());
 
-        this.valueProviders = new HashMap<>();
-        this.clientCallables = new HashMap<>();
+        this.ownsDefinition = true;
     }
 
     // Static methods
@@ -134,6 +168,10 @@ public class ReactRenderer<SOURCE> extends Renderer<SOURCE> {
      * JSX and transpiled using Babel.
      * When {@code false}, the template should use direct
      * {@code React.createElement} calls.
+     * <p>
+     * The expression is interned as a {@link ReactTemplate}, so renderers
+     * created with equivalent expressions (e.g., the same column in many
+     * sessions) share a single template instance.
      *
      * @param templateExpression
      *     The JavaScript template expression that defines how to render each
@@ -154,7 +192,38 @@ public class ReactRenderer<SOURCE> extends Renderer<SOURCE> {
     public static <SOURCE> ReactRenderer<SOURCE> of(final String templateExpression, final boolean transpile) {
         Objects.requireNonNull(templateExpression);
 
-        return new ReactRenderer<>(templateExpression, transpile);
+        final ReactRenderer<SOURCE> renderer = new ReactRenderer<>(ReactRendererDefinition.<SOURCE>builder(templateExpression, transpile).build());
+        renderer.ownsDefinition = true;
+
+        return renderer;
+    }
+
+    /**
+     * Creates a new {@link ReactRenderer} from a shared definition.
+     * <p>
+     * The renderer only holds a reference to the definition, so the same
+     * definition can back renderers in any number of containers and
+     * sessions.
+     * Calling {@link #withProperty(String, ValueProvider)} or
+     * {@code withFunction} on the returned renderer replaces its definition
+     * with a modified copy in a property namespace of its own, and leaves the
+     * shared definition untouched.
+     *
+     * @param definition
+     *     The renderer definition, not {@code null}
+     * @param <SOURCE>
+     *     The type of the model object used inside the template
+     * @return
+     *     A new {@link ReactRenderer} instance
+     * @throws NullPointerException
+     *     If {@code definition} is {@code null}
+     *
+     * @see ReactRendererDefinition
+     */
+    public static <SOURCE> ReactRenderer<SOURCE> of(final ReactRendererDefinition<SOURCE> definition) {
+        Objects.requireNonNull(definition);
+
+        return new ReactRenderer<>(definition);
     }
 
     /**
@@ -208,6 +277,77 @@ public class ReactRenderer<SOURCE> extends Renderer<SOURCE> {
         return of(templateExpression, true);
     }
 
+    /**
+     * Returns the executor that runs handlers registered with
+     * {@code withAsyncFunction}.
+     * <p>
+     * Unless {@link #setAsyncExecutor(Executor) set}, this is an executor
+     * that starts a virtual thread per task when running on Java 21 or
+     * later.
+     * Otherwise, it is a bounded pool of daemon threads with a bounded
+     * queue, which rejects tasks once both are full; the bounds can be
+     * configured with the {@value #ASYNC_THREADS_PROPERTY} and
+     * {@value #ASYNC_QUEUE_CAPACITY_PROPERTY} system properties.
+     *
+     * @return
+     *     The async executor
+     *
+     * @see #withAsyncFunction(String, SerializableBiFunction)
+     */
+    public static Executor getAsyncExecutor() {
+        Executor executor = asyncExecutor;
+        if(executor == null) {
+            synchronized(ReactRenderer.class) {
+                executor = asyncExecutor;
+                if(executor == null) {
+                    executor = createDefaultAsyncExecutor();
+                    asyncExecutor = executor;
+                }
+            }
+        }
+
+        return executor;
+    }
+
+    /**
+     * Sets the executor that runs handlers registered with
+     * {@code withAsyncFunction}.
+     *
+     * @param executor
+     *     The async executor, not {@code null}
+     * @throws NullPointerException
+     *     If {@code executor} is {@code null}
+     *
+     * @see #withAsyncFunction(String, SerializableBiFunction)
+     */
+    public static void setAsyncExecutor(final Executor executor) {
+        Objects.requireNonNull(executor);
+
+        asyncExecutor = executor;
+    }
+
+    private static Executor createDefaultAsyncExecutor() {
+        try {
+            // Java 21+; looked up reflectively, as the addon targets Java 17
+            return (Executor)Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch(final ReflectiveOperationException e) {
+            final int threads = Integer.getInteger(ASYNC_THREADS_PROPERTY, Math.max(4, 2 * Runtime.getRuntime().availableProcessors()));
+            final int queueCapacity = Integer.getInteger(ASYNC_QUEUE_CAPACITY_PROPERTY, 1024);
+            final AtomicInteger threadCount = new AtomicInteger();
+
+            final ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(queueCapacity), runnable -> {
+                final Thread thread = new Thread(runnable, "react-renderer-async-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+
+                return thread;
+            });
+            // Don't keep idle threads around
+            executor.allowCoreThreadTimeOut(true);
+
+            return executor;
+        }
+    }
+
     // Methods
     //--------------------------------------------------
 
@@ -241,14 +381,109 @@ public class ReactRenderer<SOURCE> extends Renderer<SOURCE> {
      *    If {@code property} or {@code provider} is {@code null}
      */
     public ReactRenderer<SOURCE> withProperty(final String property, final ValueProvider<SOURCE, ?> provider) {
-        Objects.requireNonNull(property);
-        Objects.requireNonNull(provider);
+        definition = edit()
+                .withProperty(property, provider)
+                .build();
 
-        valueProviders.put(property, provider);
+        return this;
+    }
+
+    /**
+     * Makes a property available to the template expression, sending its
+     * values with the specified encoding.
+     * <p>
+     * With {@link PropertyEncoding#DICTIONARY}, each distinct value is sent
+     * once per container and items carry small integer codes instead, which
+     * the client resolves before the template sees them.
+     * This shrinks payloads for low-cardinality, enum-like properties.
+     * <p>
+     * Example usage:
+     * <pre>{@code
+     * renderer.withProperty("status", Person::getStatus, PropertyEncoding.dictionaryEncoded());
+     * }</pre>
+     *
+     * @param property
+     *     The name of the property used inside the template expression, not
+     *     {@code null}
+     * @param provider
+     *     Provider of the actual value for the property, not {@code null}
+     * @param encoding
+     *     The encoding of the values, not {@code null}
+     * @return
+     *     This instance for method chaining
+     * @throws NullPointerException
+     *     If {@code property}, {@code provider}, or {@code encoding} is
+     *     {@code null}
+     *
+     * @see #withProperty(String, ValueProvider)
+     */
+    public ReactRenderer<SOURCE> withProperty(final String property, final ValueProvider<SOURCE, ?> provider, final PropertyEncoding encoding) {
+        definition = edit()
+                .withProperty(property, provider, encoding)
+                .build();
 
         return this;
     }
 
+    /**
+     * Makes a property that has the same value for every item available to
+     * the template expression.
+     * <p>
+     * Unlike properties registered with
+     * {@link #withProperty(String, ValueProvider)}, which are serialized into
+     * every item, a shared property is sent once when the renderer is
+     * registered in a container, and again only when
+     * {@link #refreshSharedProperties()} is called.
+     * Use it for values such as the locale, a currency symbol, permission
+     * flags, or theme settings.
+     * <p>
+     * Shared properties are referenced inside the template by using the
+     * {@code shared.property} syntax.
+     * <p>
+     * Example usage:
+     * <pre>{@code
+     * ReactRenderer<Order> renderer = ReactRenderer.<Order>jsx(
+     *     "({item, shared}) => <span>{shared.currency} {item.total}</span>"
+     * )
+     * .withProperty("total", Order::getTotal)
+     * .withSharedProperty("currency", () -> currentUser.getCurrencySymbol());
+     * }</pre>
+     *
+     * @param property
+     *     The name of the shared property used inside the template expression,
+     *     not {@code null}
+     * @param supplier
+     *     Supplier of the actual value for the property, not {@code null}
+     * @return
+     *     This instance for method chaining
+     * @throws NullPointerException
+     *     If {@code property} or {@code supplier} is {@code null}
+     *
+     * @see #refreshSharedProperties()
+     */
+    public ReactRenderer<SOURCE> withSharedProperty(final String property, final SerializableSupplier<?> supplier) {
+        definition = edit()
+                .withSharedProperty(property, supplier)
+                .build();
+
+        return this;
+    }
+
+    /**
+     * Re-evaluates the shared properties and sends their values to every
+     * container this renderer is registered in.
+     * <p>
+     * Cells already rendered are re-rendered with the new values, without
+     * fetching items again.
+     *
+     * @see #withSharedProperty(String, SerializableSupplier)
+     */
+    public void refreshSharedProperties() {
+        for(final Binding binding : bindings) {
+            binding.refreshSharedProperties();
+        }
+    }
+
     /**
      * Registers a client-side callable function that takes only the model item
      * as parameter.
@@ -291,9 +526,11 @@ public class ReactRenderer<SOURCE> extends Renderer<SOURCE> {
      * @see #withFunction(String, SerializableBiConsumer)
      */
     public ReactRenderer<SOURCE> withFunction(final String functionName, final SerializableConsumer<SOURCE> handler) {
-        return withFunction(functionName, (item, ignored) -> {
-            handler.accept(item);
-        });
+        definition = edit()
+                .withFunction(functionName, handler)
+                .build();
+
+        return this;
     }
 
     /**
@@ -349,22 +586,179 @@ public class ReactRenderer<SOURCE> extends Renderer<SOURCE> {
      * @see #withFunction(String, SerializableConsumer)
      */
     public ReactRenderer<SOURCE> withFunction(final String functionName, final SerializableBiConsumer<SOURCE, JsonArray> handler) {
-        Objects.requireNonNull(functionName);
-        Objects.requireNonNull(handler);
+        definition = edit()
+                .withFunction(functionName, handler)
+                .build();
 
-        if(!ALPHANUMERIC_PATTERN.matcher(functionName).matches()) {
-            throw new IllegalArgumentException("Function name must be alphanumeric: " + functionName);
-        }
+        return this;
+    }
+
+    /**
+     * Registers a client-side callable function, taking only the model item as
+     * parameter, whose handler runs asynchronously.
+     * <p>
+     * This is a convenience method for
+     * {@link #withAsyncFunction(String, SerializableBiFunction)} when you don't
+     * need access to client-side arguments.
+     *
+     * @param functionName
+     *     The name of the function that can be called from the client-side
+     *     template, must be alphanumeric, not {@code null}
+     * @param handler
+     *     The server-side handler that will be called on the async executor
+     *     when the client invokes this function.
+     *     May return a command to run with the UI locked, or {@code null},
+     *     not {@code null}
+     * @return
+     *     This instance for method chaining
+     * @throws NullPointerException
+     *     If {@code functionName} or {@code handler} is {@code null}
+     * @throws IllegalArgumentException
+     *     If {@code functionName} is not alphanumeric
+     *
+     * @see #withAsyncFunction(String, SerializableBiFunction)
+     */
+    public ReactRenderer<SOURCE> withAsyncFunction(final String functionName, final SerializableFunction<SOURCE, Command> handler) {
+        definition = edit()
+                .withAsyncFunction(functionName, handler)
+                .build();
+
+        return this;
+    }
+
+    /**
+     * Registers a client-side callable function, receiving arguments from the
+     * client, whose handler runs asynchronously.
+     * <p>
+     * Handlers registered with {@code withFunction} run while the session is
+     * locked, so a slow handler blocks every other request for the UI.
+     * Here, the item is resolved with the session locked, then the handler
+     * runs on the {@link #getAsyncExecutor() async executor} without the
+     * lock.
+     * The handler must not touch the UI directly; instead, it may return a
+     * command that is run through {@link UI#access(Command)}.
+     * Exceptions thrown by the handler are reported to the session error
+     * handler.
+     * <p>
+     * The command runs on the executor thread, outside of any request, so
+     * its changes only reach the browser by server push: the UI needs
+     * {@code @Push} (on the {@code AppShellConfigurator}) or polling.
+     * Without either, they are sent with the next request the browser makes
+     * for another reason, which may be much later or never.
+     * <p>
+     * Example usage:
+     * <pre>{@code
+     * ReactRenderer<Order> renderer = ReactRenderer.<Order>jsx(
+     *     "({item, onRefund}) => <button onClick={() => onRefund('customer request')}>Refund</button>"
+     * )
+     * .withAsyncFunction("onRefund", (order, args) -> {
+     *     // Slow backend call, outside the session lock
+     *     final RefundResult result = refundService.refund(order, args.getString(0));
+     *
+     *     return () -> Notification.show("Refunded: " + result.getAmount());
+     * });
+     * }</pre>
+     *
+     * @param functionName
+     *     The name of the function that can be called from the client-side
+     *     template, must be alphanumeric, not {@code null}
+     * @param handler
+     *     The server-side handler that will be called on the async executor
+     *     when the client invokes this function.
+     *     Receives the model item and a {@link JsonArray} of arguments from the
+     *     client, and may return a command to run with the UI locked, or
+     *     {@code null}, not {@code null}
+     * @return
+     *     This instance for method chaining
+     * @throws NullPointerException
+     *     If {@code functionName} or {@code handler} is {@code null}
+     * @throws IllegalArgumentException
+     *     If {@code functionName} is not alphanumeric
+     *
+     * @see #withAsyncFunction(String, SerializableFunction)
+     * @see #setAsyncExecutor(Executor)
+     */
+    public ReactRenderer<SOURCE> withAsyncFunction(final String functionName, final SerializableBiFunction<SOURCE, JsonArray, Command> handler) {
+        definition = edit()
+                .withAsyncFunction(functionName, handler)
+                .build();
+
+        return this;
+    }
+
+    /**
+     * Enables or disables lazy rendering.
+     * <p>
+     * When enabled, a cell is first rendered as a blank placeholder, and the
+     * React render is deferred until the cell is in the viewport and the
+     * browser is idle.
+     * Renders for cells that leave the viewport before that, e.g., during a
+     * fast scroll, are cancelled.
+     *
+     * @param lazyRendering
+     *     {@code true} to enable lazy rendering, {@code false} to render
+     *     cells immediately
+     * @return
+     *     This instance for method chaining
+     *
+     * @see ReactRendererDefinition.Builder#withLazyRendering(boolean)
+     */
+    public ReactRenderer<SOURCE> withLazyRendering(final boolean lazyRendering) {
+        definition = edit()
+                .withLazyRendering(lazyRendering)
+                .build();
 
-        clientCallables.put(functionName, handler);
+        return this;
+    }
+
+    /**
+     * Sets the priority of renders caused by data refreshes, i.e., re-renders
+     * of cells that are already displayed.
+     * <p>
+     * With {@link RenderPriority#TRANSITION}, such renders are wrapped in a
+     * React transition; with {@link RenderPriority#FRAME_BUDGET}, they are
+     * spread over animation frames with a time budget per frame.
+     * Either way, typing and clicking stay responsive while many cells
+     * re-render.
+     * Renders of new cells and of cells the user is interacting with remain
+     * urgent.
+     *
+     * @param renderPriority
+     *     The render priority, not {@code null}
+     * @return
+     *     This instance for method chaining
+     * @throws NullPointerException
+     *     If {@code renderPriority} is {@code null}
+     *
+     * @see ReactRendererDefinition.Builder#withRenderPriority(RenderPriority)
+     */
+    public ReactRenderer<SOURCE> withRenderPriority(final RenderPriority renderPriority) {
+        definition = edit()
+                .withRenderPriority(renderPriority)
+                .build();
 
         return this;
     }
 
+    // Returns a builder for a modified copy of the definition. The first edit
+    // of a definition that may be shared forks it into a namespace of its own,
+    // so that renderers derived from the same definition, e.g., two columns
+    // of one grid, never write to the same keys of an item.
+    private ReactRendererDefinition.Builder<SOURCE> edit() {
+        if(ownsDefinition) {
+            return definition.toBuilder();
+        }
+
+        ownsDefinition = true;
+
+        return definition.fork();
+    }
+
     @Override
     public Rendering<SOURCE> render(final Element container, final DataKeyMapper<SOURCE> keyMapper, final String rendererName) {
-        final DataGenerator<SOURCE> dataGenerator = createDataGenerator();
-        final Registration registration = createJsRendererFunction(container, keyMapper, rendererName);
+        final Binding binding = new Binding(container, keyMapper, rendererName);
+        final DataGenerator<SOURCE> dataGenerator = binding::generateData;
+        final Registration registration = binding.register();
 
         return new Rendering<>() {
             @Override
@@ -379,89 +773,330 @@ public class ReactRenderer<SOURCE> extends Renderer<SOURCE> {
         };
     }
 
-    private DataGenerator<SOURCE> createDataGenerator() {
-        return (item, jsonObject) -> {
-            for(final Map.Entry<String, ValueProvider<SOURCE, ?>> valueProvider : valueProviders.entrySet()) {
-                final String key = valueProvider.getKey();
-                final ValueProvider<SOURCE, ?> provider = valueProvider.getValue();
-
-                jsonObject.put(
-                        // Prefix with renderer-specific namespace
-                        propertyNamespace + key,
-                        JsonSerializer.toJson(provider.apply(item))
-                );
-            }
-        };
+    private static JsonObject createSharedProperties(final ReactRendererDefinition<?> definition) {
+        final String[] names = definition.getSharedPropertyNames();
+        final SerializableSupplier<?>[] suppliers = definition.getSharedPropertySupplierArray();
+
+        final JsonObject sharedProperties = Json.createObject();
+        for(int i = 0; i < names.length; i++) {
+            sharedProperties.put(names[i], JsonSerializer.toJson(suppliers[i].get()));
+        }
+
+        return sharedProperties;
     }
 
-    private Registration createJsRendererFunction(final Element container, final DataKeyMapper<SOURCE> keyMapper, final String rendererName) {
-        final ReturnChannelRegistration returnChannel = container.getNode().getFeature(ReturnChannelMap.class).registerChannel(arguments -> {
+    static UI getElementUI(final Element element) {
+        return ((StateTree)element.getNode().getOwner()).getUI();
+    }
+
+    // Nested
+    //--------------------------------------------------
+
+    // The state of this renderer in a single container. This is the only
+    // per-container state, kept as small as possible since it lives in the
+    // session. Bindings without a renderer name back the rows of a
+    // ReactRowRenderer and are not assigned to the container.
+    final class Binding implements Serializable {
+
+        // Static fields
+        //--------------------------------------------------
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        // Fields
+        //--------------------------------------------------
+
+        private final Element container;
+        private final DataKeyMapper<SOURCE> keyMapper;
+        private final String rendererName;
+
+        // Identifies this binding on the client; the namespace alone is not
+        // unique, as one definition may back renderers in several containers
+        private final String rendererId;
+
+        private ReturnChannelRegistration returnChannel;
+
+        // Dictionaries of dictionary-encoded properties, by property name
+        private final Map<String, PropertyDictionary> dictionaries;
+
+        // UI the renderer was last set in, for unsetting it after the
+        // container has been detached
+        private UI ui;
+
+        // Constructors
+        //--------------------------------------------------
+
+        Binding(final Element container, final DataKeyMapper<SOURCE> keyMapper, final String rendererName) {
+            super();
+
+            this.container = container;
+            this.keyMapper = keyMapper;
+            this.rendererName = rendererName;
+
+            this.rendererId = definition.getPropertyNamespace() + UUID.randomUUID().toString().substring(0, 8);
+
+            this.dictionaries = new HashMap<>();
+        }
+
+        // Methods
+        //--------------------------------------------------
+
+        Registration register() {
+            returnChannel = container.getNode().getFeature(ReturnChannelMap.class).registerChannel(this::handleClientCall);
+
+            // Attach listener for when component gets reattached
+            final Registration attachRegistration = container.addAttachListener(event -> set());
+
+            // Set renderer initially if already attached
+            if(container.getNode().isAttached()) {
+                set();
+            }
+
+            bindings.add(this);
+
+            // Clean up when renderer is unregistered
+            return () -> {
+                bindings.remove(this);
+                attachRegistration.remove();
+                returnChannel.remove();
+                unset();
+            };
+        }
+
+        void generateData(final SOURCE item, final JsonObject jsonObject) {
+            // Read on every call, so properties added after rendering are included
+            final ReactRendererDefinition<SOURCE> definition = ReactRenderer.this.definition;
+
+            // Names are already prefixed with the renderer-specific namespace
+            final String[] keys = definition.getNamespacedPropertyNames();
+            final String[] properties = definition.getPropertyNames();
+            final ValueProvider<SOURCE, ?>[] providers = definition.getValueProviderArray();
+            final boolean[] dictionaryEncoded = definition.getDictionaryEncodedArray();
+            for(int i = 0; i < keys.length; i++) {
+                final JsonValue value = JsonSerializer.toJson(providers[i].apply(item));
+
+                if(dictionaryEncoded[i]) {
+                    // Codes depend on this binding's dictionary, so they must
+                    // not be written under keys shared with other bindings
+                    jsonObject.put(getDictionaryKeyPrefix() + properties[i], encode(properties[i], value));
+                } else {
+                    jsonObject.put(keys[i], value);
+                }
+            }
+        }
+
+        // Whether the data of this binding has been generated into the object
+        boolean hasGeneratedData(final JsonObject jsonObject) {
+            final ReactRendererDefinition<SOURCE> definition = ReactRenderer.this.definition;
+            final String[] keys = definition.getNamespacedPropertyNames();
+            if(keys.length == 0) {
+                return true;
+            }
+
+            return jsonObject.hasKey(definition.getDictionaryEncodedArray()[0]
+                    ? getDictionaryKeyPrefix() + definition.getPropertyNames()[0]
+                    : keys[0]);
+        }
+
+        // Prefix of the keys of dictionary-encoded properties, unique to this
+        // binding; derived rather than stored, and not starting with the
+        // namespace, so the client does not take the keys for properties
+        private String getDictionaryKeyPrefix() {
+            return "d" + rendererId;
+        }
+
+        private JsonValue encode(final String property, final JsonValue value) {
+            final PropertyDictionary dictionary = dictionaries.computeIfAbsent(property, ignored -> new PropertyDictionary());
+
+            final int size = dictionary.size();
+            final int code = dictionary.encode(value);
+            if(dictionary.size() > size && ui != null) {
+                // New value; ship it to the client before the response is sent
+                ReactRendererBatch.get(ui).requestDictionaryUpdate(rendererId, this::createDictionaryDelta);
+            }
+
+            return Json.create(code);
+        }
+
+        // All dictionary values, including ones that have already been sent
+        private JsonObject createDictionarySnapshot() {
+            final String[] properties = definition.getPropertyNames();
+            final boolean[] dictionaryEncoded = definition.getDictionaryEncodedArray();
+
+            final JsonObject snapshot = Json.createObject();
+            for(int i = 0; i < properties.length; i++) {
+                if(dictionaryEncoded[i]) {
+                    snapshot.put(properties[i], dictionaries.computeIfAbsent(properties[i], ignored -> new PropertyDictionary()).drainSnapshot());
+                }
+            }
+
+            return snapshot;
+        }
+
+        // Dictionary values that have not been sent yet, as [firstCode, values]
+        // by property name
+        private JsonObject createDictionaryDelta() {
+            final JsonObject delta = Json.createObject();
+            dictionaries.forEach((property, dictionary) -> {
+                final int firstCode = dictionary.sentSize();
+                final JsonArray values = dictionary.drainDelta();
+                if(values.length() > 0) {
+                    final JsonArray entry = Json.createArray();
+                    entry.set(0, firstCode);
+                    entry.set(1, values);
+                    delta.put(property, entry);
+                }
+            });
+
+            return delta;
+        }
+
+        private void handleClientCall(final JsonArray arguments) {
             // Invoked when the client calls one of the client callables
             final String handlerName = arguments.getString(0);
             final String itemKey = arguments.getString(1);
             final JsonArray args = arguments.getArray(2);
 
-            final SerializableBiConsumer<SOURCE, JsonArray> handler = clientCallables.get(handlerName);
+            final ReactRendererDefinition.ClientCallable<SOURCE> handler = definition.findClientCallable(handlerName);
             final SOURCE item = keyMapper.get(itemKey);
-            if(item != null) {
-                handler.accept(item, args);
+            if(handler != null && item != null) {
+                handler.invoke(item, args, getElementUI(container));
             }
-        });
+        }
 
-        final JsonArray clientCallablesArray = JsonUtils.listToJson(new ArrayList<>(clientCallables.keySet()));
+        void set() {
+            assert container.getNode().isAttached() : "Container must be attached";
 
-        final List<Registration> registrations = new ArrayList<>();
+            final ReactRendererDefinition<SOURCE> definition = ReactRenderer.this.definition;
+            final ReactTemplate template = definition.getTemplate();
 
-        // Attach listener for when component gets reattached
-        registrations.add(container.addAttachListener(event -> {
-            setElementRenderer(container, rendererName, returnChannel, clientCallablesArray);
-        }));
+            ui = getElementUI(container);
 
-        // Set renderer initially if already attached
-        if(container.getNode().isAttached()) {
-            setElementRenderer(container, rendererName, returnChannel, clientCallablesArray);
+            final JsonObject options = Json.createObject();
+            options.put("lazy", definition.isLazyRendering());
+            options.put("priority", definition.getRenderPriority().getClientName());
+            options.put("row", rendererName == null);
+
+            final JsonObject renderer = Json.createObject();
+            if(rendererName != null) {
+                renderer.put("rendererName", rendererName);
+            }
+            renderer.put("rendererId", rendererId);
+            renderer.put("templateId", template.getId());
+            renderer.put("templateExpression", template.getExpression());
+            renderer.put("transpile", template.isJsx());
+            renderer.put("clientCallables", JsonUtils.listToJson(definition.getClientCallableNames()));
+            renderer.put("propertyNamespace", definition.getPropertyNamespace());
+            renderer.put("appId", ui.getInternals().getAppId());
+            renderer.put("sharedProperties", createSharedProperties(definition));
+            renderer.put("dictionaries", createDictionarySnapshot());
+            renderer.put("dictionaryKeyPrefix", getDictionaryKeyPrefix());
+            renderer.put("options", options);
+
+            ReactRendererBatch.get(ui).set(container, rendererId, renderer, returnChannel);
         }
 
-        // Clean up when renderer is unregistered
-        registrations.add(() -> {
-            container.executeJs("window.Vaadin.unsetReactRenderer(this, $0, $1)", rendererName, propertyNamespace);
-        });
+        String getRendererId() {
+            return rendererId;
+        }
 
-        return () -> {
-            for(final Registration registration : registrations) {
-                registration.remove();
+        private void refreshSharedProperties() {
+            if(ui == null) {
+                return;
             }
-        };
-    }
 
-    private void setElementRenderer(
-            final Element container,
-            final String rendererName,
-            final ReturnChannelRegistration returnChannel,
-            final JsonArray clientCallablesArray
-    ) {
-        assert container.getNode().isAttached() : "Container must be attached";
-
-        final String appId = getElementUI(container).getInternals().getAppId();
-        container.executeJs(
-                "window.Vaadin.setReactRenderer(this, $0, $1, $2, $3, $4, $5, $6)",
-                rendererName,
-                templateExpression,
-                jsx,
-                returnChannel,
-                clientCallablesArray,
-                propertyNamespace,
-                appId
-        );
-    }
+            ReactRendererBatch.get(ui).updateSharedProperties(rendererId, createSharedProperties(definition));
+        }
+
+        private void unset() {
+            if(ui == null) {
+                return;
+            }
+
+            final JsonObject renderer = Json.createObject();
+            if(rendererName != null) {
+                renderer.put("rendererName", rendererName);
+            }
+            renderer.put("rendererId", rendererId);
+
+            // Sent through the UI, as invocations on a detached container would
+            // never run; the client receives null for the container and still
+            // unmounts the React roots of the renderer
+            ReactRendererBatch.get(ui).unset(container, rendererId, renderer);
+            ui = null;
+        }
 
-    private UI getElementUI(final Element element) {
-        return ((StateTree)element.getNode().getOwner()).getUI();
     }
 
     // Getters/setters
     //--------------------------------------------------
 
+    /**
+     * Returns the template rendered by this renderer.
+     *
+     * @return
+     *     The canonical template instance
+     */
+    public ReactTemplate getTemplate() {
+        return definition.getTemplate();
+    }
+
+    /**
+     * Returns the template expression of this renderer.
+     *
+     * @return
+     *     The normalized template expression
+     *
+     * @deprecated
+     *     Use {@link #getTemplate()}.
+     */
+    @Deprecated(forRemoval = true)
+    protected String getTemplateExpression() {
+        return definition.getTemplate().getExpression();
+    }
+
+    /**
+     * Returns whether the template of this renderer is transpiled from JSX.
+     *
+     * @return
+     *     {@code true} if the template is JSX
+     *
+     * @deprecated
+     *     Use {@link #getTemplate()}.
+     */
+    @Deprecated(forRemoval = true)
+    protected boolean isJsx() {
+        return definition.getTemplate().isJsx();
+    }
+
+    /**
+     * Returns the prefix of the item properties of this renderer.
+     *
+     * @return
+     *     The property namespace
+     *
+     * @deprecated
+     *     Use {@link #getDefinition()}.
+     */
+    @Deprecated(forRemoval = true)
+    protected String getPropertyNamespace() {
+        return definition.getPropertyNamespace();
+    }
+
+    /**
+     * Returns the definition of this renderer.
+     * <p>
+     * The definition can be shared with renderers for other containers and
+     * sessions using {@link #of(ReactRendererDefinition)}.
+     *
+     * @return
+     *     The renderer definition
+     */
+    public ReactRendererDefinition<SOURCE> getDefinition() {
+        return definition;
+    }
+
     /**
      * Returns an unmodifiable view of the value providers registered with this
      * renderer.
@@ -478,7 +1113,7 @@ public class ReactRenderer<SOURCE> extends Renderer<SOURCE> {
      * @see #withProperty(String, ValueProvider)
      */
     public Map<String, ValueProvider<SOURCE, ?>> getValueProviders() {
-        return Collections.unmodifiableMap(valueProviders);
+        return definition.getValueProviders();
     }
 
 }
@@ -0,0 +1,352 @@
+package com.oliveryasuna.vaadin.reactrenderer;
+
+import com.vaadin.flow.component.ComponentUtil;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.function.SerializableSupplier;
+import com.vaadin.flow.internal.nodefeature.ReturnChannelRegistration;
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * Collects the React renderers set and unset in a {@link UI} during a
+ * round trip, and sends them to the client before the response is written.
+ * <p>
+ * Sets are sent in a single JavaScript invocation per owning component,
+ * e.g., per {@code Grid} rather than per column, since components such as
+ * {@code Grid} use a separate container for each column.
+ * The invocation is owned by the component, so Flow holds it back while the
+ * component is invisible, until its containers can be bound on the client.
+ * Shared property updates and dictionary deltas are sent along with the sets
+ * of the same component, so they never overtake a held registration.
+ * <p>
+ * Unsets are sent in a single invocation owned by the UI, as the containers
+ * being unset may already have been detached.
+ * <p>
+ * Template expressions are only sent the first time a template is used in
+ * the UI; later registrations refer to it by its ID.
+ * A template is not counted as sent by an invocation that Flow holds back.
+ * <p>
+ * Within a batch, the last operation for a renderer ID wins.
+ * Unsets are applied before sets, which is equivalent to applying all
+ * operations in order, given that renderer IDs are never reused.
+ */
+final class ReactRendererBatch implements Serializable {
+
+    // Static fields
+    //--------------------------------------------------
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    // Fields
+    //--------------------------------------------------
+
+    private final UI ui;
+
+    private final Map<String, PendingSet> pendingSets;
+    private final Map<String, PendingUnset> pendingUnsets;
+    private final Map<String, JsonObject> pendingSharedProperties;
+    private final Map<String, SerializableSupplier<JsonObject>> pendingDictionaryUpdates;
+
+    // Owning components of the renderers that are set, by renderer ID
+    private final Map<String, Element> owners;
+
+    // IDs of the templates whose expressions the client has received
+    private final Set<String> sentTemplateIds;
+
+    private boolean flushScheduled;
+
+    // Constructors
+    //--------------------------------------------------
+
+    private ReactRendererBatch(final UI ui) {
+        super();
+
+        this.ui = ui;
+
+        this.pendingSets = new LinkedHashMap<>();
+        this.pendingUnsets = new LinkedHashMap<>();
+        this.pendingSharedProperties = new LinkedHashMap<>();
+        this.pendingDictionaryUpdates = new LinkedHashMap<>();
+
+        this.owners = new HashMap<>();
+
+        this.sentTemplateIds = new HashSet<>();
+    }
+
+    // Static methods
+    //--------------------------------------------------
+
+    static ReactRendererBatch get(final UI ui) {
+        ReactRendererBatch batch = ComponentUtil.getData(ui, ReactRendererBatch.class);
+        if(batch == null) {
+            batch = new ReactRendererBatch(ui);
+            ComponentUtil.setData(ui, ReactRendererBatch.class, batch);
+        }
+
+        return batch;
+    }
+
+    // The component a container belongs to: the container itself or, for a
+    // column, the grid it is in, skipping column groups
+    static Element findOwner(final Element container) {
+        Element owner = container;
+        while(isColumn(owner) && owner.getParent() != null) {
+            owner = owner.getParent();
+        }
+
+        return owner;
+    }
+
+    private static boolean isColumn(final Element element) {
+        return (element.getTag().endsWith("-column") || element.getTag().endsWith("-column-group"));
+    }
+
+    // Whether an invocation owned by the element is sent in this response,
+    // rather than held back by Flow
+    private static boolean isDelivered(final Element element) {
+        if(!element.getNode().isAttached()) {
+            return false;
+        }
+
+        for(Element current = element; current != null; current = current.getParent()) {
+            if(!current.isVisible()) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static String parameter(final List<Serializable> parameters, final Serializable value) {
+        parameters.add(value);
+
+        return "$" + (parameters.size() - 1);
+    }
+
+    // Methods
+    //--------------------------------------------------
+
+    void set(final Element container, final String rendererId, final JsonObject renderer, final ReturnChannelRegistration returnChannel) {
+        final Element owner = findOwner(container);
+
+        pendingUnsets.remove(rendererId);
+        pendingSets.put(rendererId, new PendingSet(container, owner, renderer, returnChannel));
+        owners.put(rendererId, owner);
+
+        scheduleFlush();
+    }
+
+    boolean isSetPending(final String rendererId) {
+        return pendingSets.containsKey(rendererId);
+    }
+
+    void updateSharedProperties(final String rendererId, final JsonObject sharedProperties) {
+        final PendingSet pendingSet = pendingSets.get(rendererId);
+        if(pendingSet != null) {
+            // Not on the client yet; send the new values with the registration
+            pendingSet.renderer().put("sharedProperties", sharedProperties);
+
+            return;
+        }
+
+        pendingSharedProperties.put(rendererId, sharedProperties);
+
+        scheduleFlush();
+    }
+
+    // The delta is computed when the batch is flushed, i.e., after the data
+    // of the round trip has been generated
+    void requestDictionaryUpdate(final String rendererId, final SerializableSupplier<JsonObject> delta) {
+        pendingDictionaryUpdates.put(rendererId, delta);
+
+        scheduleFlush();
+    }
+
+    void unset(final Element container, final String rendererId, final JsonObject renderer) {
+        pendingSets.remove(rendererId);
+        pendingSharedProperties.remove(rendererId);
+        pendingDictionaryUpdates.remove(rendererId);
+        owners.remove(rendererId);
+        pendingUnsets.put(rendererId, new PendingUnset(container, renderer));
+
+        scheduleFlush();
+    }
+
+    private void scheduleFlush() {
+        if(flushScheduled) {
+            return;
+        }
+
+        flushScheduled = true;
+        ui.beforeClientResponse(ui, context -> flush());
+    }
+
+    private void flush() {
+        flushScheduled = false;
+
+        if(!pendingUnsets.isEmpty()) {
+            flushUnsets();
+        }
+
+        // Everything else is grouped by owner, in order of first use
+        final Map<Element, OwnerInvocation> invocations = new LinkedHashMap<>();
+        pendingSets.values().forEach(set -> invocations.computeIfAbsent(set.owner(), OwnerInvocation::new).sets.add(set));
+        pendingSharedProperties.forEach((rendererId, sharedProperties) -> {
+            final Element owner = owners.get(rendererId);
+            if(owner != null) {
+                invocations.computeIfAbsent(owner, OwnerInvocation::new).sharedProperties.put(rendererId, sharedProperties);
+            }
+        });
+        pendingDictionaryUpdates.forEach((rendererId, delta) -> {
+            final Element owner = owners.get(rendererId);
+            if(owner != null) {
+                invocations.computeIfAbsent(owner, OwnerInvocation::new).dictionaryUpdates.put(rendererId, delta);
+            }
+        });
+
+        pendingSets.clear();
+        pendingSharedProperties.clear();
+        pendingDictionaryUpdates.clear();
+
+        invocations.values().forEach(this::flush);
+    }
+
+    private void flushUnsets() {
+        final List<Serializable> parameters = new ArrayList<>();
+
+        final JsonArray renderers = Json.createArray();
+        final StringJoiner containers = new StringJoiner(", ", "[", "]");
+        for(final PendingUnset unset : pendingUnsets.values()) {
+            renderers.set(renderers.length(), unset.renderer());
+            containers.add(parameter(parameters, unset.container()));
+        }
+
+        final String expression = "window.Vaadin.unsetReactRenderers(" + parameter(parameters, renderers) + ", " + containers + ");";
+
+        pendingUnsets.clear();
+
+        ui.getElement().executeJs(expression, parameters.toArray(Serializable[]::new));
+    }
+
+    private void flush(final OwnerInvocation invocation) {
+        final List<Serializable> parameters = new ArrayList<>();
+        final StringBuilder expression = new StringBuilder();
+
+        if(!invocation.sets.isEmpty()) {
+            final boolean delivered = isDelivered(invocation.owner);
+
+            final JsonArray renderers = Json.createArray();
+            final StringJoiner containers = new StringJoiner(", ", "[", "]");
+            final StringJoiner returnChannels = new StringJoiner(", ", "[", "]");
+            for(final PendingSet set : invocation.sets) {
+                omitSentTemplateExpression(set.renderer(), delivered);
+                renderers.set(renderers.length(), set.renderer());
+                containers.add(parameter(parameters, set.container()));
+                returnChannels.add(parameter(parameters, set.returnChannel()));
+            }
+
+            expression.append("window.Vaadin.setReactRenderers(")
+                    .append(parameter(parameters, renderers)).append(", ")
+                    .append(containers).append(", ")
+                    .append(returnChannels).append(");");
+        }
+
+        if(!invocation.sharedProperties.isEmpty()) {
+            final JsonObject sharedProperties = Json.createObject();
+            invocation.sharedProperties.forEach(sharedProperties::put);
+
+            expression.append("window.Vaadin.updateReactRendererSharedProperties(")
+                    .append(parameter(parameters, sharedProperties)).append(");");
+        }
+
+        if(!invocation.dictionaryUpdates.isEmpty()) {
+            final JsonObject dictionaries = Json.createObject();
+            invocation.dictionaryUpdates.forEach((rendererId, delta) -> {
+                final JsonObject rendererDelta = delta.get();
+                if(rendererDelta.keys().length > 0) {
+                    dictionaries.put(rendererId, rendererDelta);
+                }
+            });
+
+            if(dictionaries.keys().length > 0) {
+                expression.append("window.Vaadin.updateReactRendererDictionaries(")
+                        .append(parameter(parameters, dictionaries)).append(");");
+            }
+        }
+
+        if(expression.isEmpty()) {
+            return;
+        }
+
+        invocation.owner.executeJs(expression.toString(), parameters.toArray(Serializable[]::new));
+    }
+
+    // Registrations sent in an invocation that is held back must carry their
+    // expression, as invocations sent meanwhile may not
+    private void omitSentTemplateExpression(final JsonObject renderer, final boolean delivered) {
+        // Cells have no template of their own
+        if(!renderer.hasKey("templateId")) {
+            return;
+        }
+
+        final String templateId = renderer.getString("templateId");
+        if(sentTemplateIds.contains(templateId)) {
+            renderer.remove("templateExpression");
+        } else if(delivered) {
+            sentTemplateIds.add(templateId);
+        }
+    }
+
+    // Nested
+    //--------------------------------------------------
+
+    private record PendingSet(Element container, Element owner, JsonObject renderer, ReturnChannelRegistration returnChannel) implements Serializable {
+
+    }
+
+    private record PendingUnset(Element container, JsonObject renderer) implements Serializable {
+
+    }
+
+    // The operations sent in the invocation of one owner
+    private static final class OwnerInvocation {
+
+        // Fields
+        //--------------------------------------------------
+
+        private final Element owner;
+
+        private final List<PendingSet> sets;
+        private final Map<String, JsonObject> sharedProperties;
+        private final Map<String, SerializableSupplier<JsonObject>> dictionaryUpdates;
+
+        // Constructors
+        //--------------------------------------------------
+
+        private OwnerInvocation(final Element owner) {
+            super();
+
+            this.owner = owner;
+
+            this.sets = new ArrayList<>();
+            this.sharedProperties = new LinkedHashMap<>();
+            this.dictionaryUpdates = new LinkedHashMap<>();
+        }
+
+    }
+
+}
@@ -0,0 +1,819 @@
+package com.oliveryasuna.vaadin.reactrenderer;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.function.SerializableBiConsumer;
+import com.vaadin.flow.function.SerializableBiFunction;
+import com.vaadin.flow.function.SerializableConsumer;
+import com.vaadin.flow.function.SerializableFunction;
+import com.vaadin.flow.function.SerializableSupplier;
+import com.vaadin.flow.function.ValueProvider;
+import com.vaadin.flow.server.Command;
+import elemental.json.JsonArray;
+
+import java.io.InvalidObjectException;
+import java.io.ObjectStreamException;
+import java.io.Serial;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * An immutable definition of a {@link ReactRenderer}: its template, property
+ * bindings, and client callables.
+ * <p>
+ * A definition holds no per-container or per-session state, so a single
+ * instance can be shared by every renderer created from it, e.g., by
+ * declaring it as a constant and creating a renderer for each grid with
+ * {@link ReactRenderer#of(ReactRendererDefinition)}.
+ * Only the renderer itself, which is a thin reference to the definition, and
+ * the state of its per-container bindings live in the session.
+ * <p>
+ * Properties and callables are stored in compact arrays rather than maps, as
+ * they are only ever iterated, or looked up among a handful of entries.
+ * <p>
+ * A definition given a stable {@link Builder#withId(String) ID} and
+ * registered with {@link ReactRendererDefinitionRegistry} is serialized as a
+ * reference to that ID, and its property namespace is derived from the ID, so
+ * it is identical on every node of a cluster.
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * private static final ReactRendererDefinition<Person> NAME_RENDERER = ReactRendererDefinition.<Person>jsx(
+ *     "({item, handleClick}) => <span onClick={handleClick}>{item.name}</span>"
+ * )
+ * .withProperty("name", Person::getName)
+ * .withFunction("handleClick", person -> System.out.println("Clicked: " + person.getName()))
+ * .build();
+ *
+ * grid.addColumn(ReactRenderer.of(NAME_RENDERER));
+ * }</pre>
+ *
+ * @param <SOURCE>
+ *     The type of the model object used inside the template
+ *
+ * @see ReactRenderer#of(ReactRendererDefinition)
+ * @see Builder
+ */
+public final class ReactRendererDefinition<SOURCE> implements Serializable {
+
+    // Static fields
+    //--------------------------------------------------
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private static final Pattern ALPHANUMERIC_PATTERN = Pattern.compile("^[a-zA-Z0-9]+$");
+
+    // Fields
+    //--------------------------------------------------
+
+    private final String id;
+
+    private final ReactTemplate template;
+
+    private final String propertyNamespace;
+
+    private final String[] propertyNames;
+    // Property names prefixed with the namespace, as sent to the client
+    private final String[] namespacedPropertyNames;
+    private final ValueProvider<SOURCE, ?>[] valueProviders;
+    private final boolean[] dictionaryEncoded;
+
+    private final String[] sharedPropertyNames;
+    private final SerializableSupplier<?>[] sharedPropertySuppliers;
+
+    private final String[] clientCallableNames;
+    private final ClientCallable<SOURCE>[] clientCallables;
+
+    private final boolean lazyRendering;
+    private final RenderPriority renderPriority;
+
+    // Constructors
+    //--------------------------------------------------
+
+    @SuppressWarnings("unchecked")
+    private ReactRendererDefinition(final Builder<SOURCE> builder) {
+        super();
+
+        this.id = builder.id;
+
+        this.template = builder.template;
+
+        if(builder.propertyNamespace != null) {
+            this.propertyNamespace = builder.propertyNamespace;
+        } else if(id != null) {
+            this.propertyNamespace = "rr_%s_".formatted(hashId(id));
+        } else {
+            this.propertyNamespace = "rr_%s_".formatted(UUID.randomUUID().toString().replace("-", "").substring(0, 16));
+        }
+
+        this.propertyNames = builder.valueProviders.keySet().toArray(String[]::new);
+        this.namespacedPropertyNames = new String[propertyNames.length];
+        for(int i = 0; i < propertyNames.length; i++) {
+            namespacedPropertyNames[i] = propertyNamespace + propertyNames[i];
+        }
+        this.valueProviders = builder.valueProviders.values().toArray(ValueProvider[]::new);
+        this.dictionaryEncoded = new boolean[propertyNames.length];
+        for(int i = 0; i < propertyNames.length; i++) {
+            dictionaryEncoded[i] = builder.dictionaryEncodedProperties.contains(propertyNames[i]);
+        }
+
+        this.sharedPropertyNames = builder.sharedPropertySuppliers.keySet().toArray(String[]::new);
+        this.sharedPropertySuppliers = builder.sharedPropertySuppliers.values().toArray(SerializableSupplier[]::new);
+
+        this.clientCallableNames = builder.clientCallables.keySet().toArray(String[]::new);
+        this.clientCallables = builder.clientCallables.values().toArray(ClientCallable[]::new);
+
+        this.lazyRendering = builder.lazyRendering;
+        this.renderPriority = builder.renderPriority;
+    }
+
+    // Static methods
+    //--------------------------------------------------
+
+    /**
+     * Creates a new builder for a definition with the specified template
+     * expression and transpilation mode.
+     *
+     * @param templateExpression
+     *     The JavaScript template expression that defines how to render each
+     *     item, not {@code null}
+     * @param transpile
+     *     {@code true} to enable JSX transpilation using Babel, {@code false}
+     *     to use direct {@code React.createElement} calls
+     * @param <SOURCE>
+     *     The type of the model object used inside the template
+     * @return
+     *     A new builder
+     * @throws NullPointerException
+     *     If {@code templateExpression} is {@code null}
+     *
+     * @see ReactRenderer#of(String, boolean)
+     */
+    public static <SOURCE> Builder<SOURCE> builder(final String templateExpression, final boolean transpile) {
+        return new Builder<>(ReactTemplate.of(templateExpression, transpile));
+    }
+
+    /**
+     * Creates a new builder for a definition with the specified template
+     * expression without JSX transpilation.
+     *
+     * @param templateExpression
+     *     The JavaScript template expression that defines how to render each
+     *     item using {@code React.createElement} calls, not {@code null}
+     * @param <SOURCE>
+     *     The type of the model object used inside the template
+     * @return
+     *     A new builder
+     * @throws NullPointerException
+     *     If {@code templateExpression} is {@code null}
+     *
+     * @see ReactRenderer#of(String)
+     */
+    public static <SOURCE> Builder<SOURCE> of(final String templateExpression) {
+        return builder(templateExpression, false);
+    }
+
+    /**
+     * Creates a new builder for a definition with JSX transpilation enabled.
+     *
+     * @param templateExpression
+     *     The JavaScript template expression using JSX syntax that defines how
+     *     to render each item, not {@code null}
+     * @param <SOURCE>
+     *     The type of the model object used inside the template
+     * @return
+     *     A new builder
+     * @throws NullPointerException
+     *     If {@code templateExpression} is {@code null}
+     *
+     * @see ReactRenderer#jsx(String)
+     */
+    public static <SOURCE> Builder<SOURCE> jsx(final String templateExpression) {
+        return builder(templateExpression, true);
+    }
+
+    private static String hashId(final String id) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch(final NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+
+        return HexFormat.of().formatHex(digest.digest(id.getBytes(StandardCharsets.UTF_8)), 0, 8);
+    }
+
+    // Methods
+    //--------------------------------------------------
+
+    @Serial
+    private Object writeReplace() {
+        // Registered definitions travel as their ID only
+        return (ReactRendererDefinitionRegistry.isRegistered(this) ? new Reference(id) : this);
+    }
+
+    /**
+     * Creates a new builder initialized with the state of this definition.
+     * <p>
+     * Definitions built from the returned builder keep the property
+     * namespace of this definition, so they remain compatible with data
+     * already sent to the client.
+     * Consequently, two definitions derived from the same one must not be
+     * used in the same component, as they would write the same keys of an
+     * item.
+     * The {@code with} methods of {@link ReactRenderer} take care of this
+     * by giving a renderer its own namespace when it first modifies a
+     * definition it was created from.
+     *
+     * @return
+     *     A new builder
+     */
+    public Builder<SOURCE> toBuilder() {
+        final Builder<SOURCE> builder = new Builder<>(template);
+        builder.id = id;
+        builder.propertyNamespace = propertyNamespace;
+        for(int i = 0; i < propertyNames.length; i++) {
+            builder.valueProviders.put(propertyNames[i], valueProviders[i]);
+            if(dictionaryEncoded[i]) {
+                builder.dictionaryEncodedProperties.add(propertyNames[i]);
+            }
+        }
+        for(int i = 0; i < sharedPropertyNames.length; i++) {
+            builder.sharedPropertySuppliers.put(sharedPropertyNames[i], sharedPropertySuppliers[i]);
+        }
+        for(int i = 0; i < clientCallableNames.length; i++) {
+            builder.clientCallables.put(clientCallableNames[i], clientCallables[i]);
+        }
+        builder.lazyRendering = lazyRendering;
+        builder.renderPriority = renderPriority;
+
+        return builder;
+    }
+
+    // A builder for a new, unregistered definition with the state of this
+    // one, but neither its ID nor its property namespace
+    Builder<SOURCE> fork() {
+        final Builder<SOURCE> builder = toBuilder();
+        builder.id = null;
+        builder.propertyNamespace = null;
+
+        return builder;
+    }
+
+    ClientCallable<SOURCE> findClientCallable(final String functionName) {
+        for(int i = 0; i < clientCallableNames.length; i++) {
+            if(clientCallableNames[i].equals(functionName)) {
+                return clientCallables[i];
+            }
+        }
+
+        return null;
+    }
+
+    // Getters/setters
+    //--------------------------------------------------
+
+    /**
+     * Returns the stable identifier of this definition.
+     *
+     * @return
+     *     The definition ID, or {@code null} if none was set
+     *
+     * @see Builder#withId(String)
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Returns the template rendered by this definition.
+     *
+     * @return
+     *     The canonical template instance
+     */
+    public ReactTemplate getTemplate() {
+        return template;
+    }
+
+    /**
+     * Returns the prefix applied to property names in the item data sent to
+     * the client.
+     *
+     * @return
+     *     The property namespace
+     */
+    public String getPropertyNamespace() {
+        return propertyNamespace;
+    }
+
+    /**
+     * Returns an unmodifiable view of the value providers of this definition,
+     * in registration order.
+     *
+     * @return
+     *     An unmodifiable map of property names to their corresponding value
+     *     providers
+     */
+    public Map<String, ValueProvider<SOURCE, ?>> getValueProviders() {
+        final Map<String, ValueProvider<SOURCE, ?>> map = new LinkedHashMap<>();
+        for(int i = 0; i < propertyNames.length; i++) {
+            map.put(propertyNames[i], valueProviders[i]);
+        }
+
+        return Collections.unmodifiableMap(map);
+    }
+
+    /**
+     * Returns an unmodifiable view of the shared property suppliers of this
+     * definition, in registration order.
+     *
+     * @return
+     *     An unmodifiable map of shared property names to their corresponding
+     *     suppliers
+     *
+     * @see Builder#withSharedProperty(String, SerializableSupplier)
+     */
+    public Map<String, SerializableSupplier<?>> getSharedPropertySuppliers() {
+        final Map<String, SerializableSupplier<?>> map = new LinkedHashMap<>();
+        for(int i = 0; i < sharedPropertyNames.length; i++) {
+            map.put(sharedPropertyNames[i], sharedPropertySuppliers[i]);
+        }
+
+        return Collections.unmodifiableMap(map);
+    }
+
+    /**
+     * Returns the names of the client callables of this definition, in
+     * registration order.
+     *
+     * @return
+     *     An unmodifiable list of function names
+     */
+    public List<String> getClientCallableNames() {
+        return List.of(clientCallableNames);
+    }
+
+    /**
+     * Returns whether cells are rendered lazily.
+     *
+     * @return
+     *     {@code true} if lazy rendering is enabled, {@code false} otherwise
+     *
+     * @see Builder#withLazyRendering(boolean)
+     */
+    public boolean isLazyRendering() {
+        return lazyRendering;
+    }
+
+    /**
+     * Returns the priority of renders caused by data refreshes.
+     *
+     * @return
+     *     The render priority
+     *
+     * @see Builder#withRenderPriority(RenderPriority)
+     */
+    public RenderPriority getRenderPriority() {
+        return renderPriority;
+    }
+
+    /**
+     * Returns the encoding of a property.
+     *
+     * @param property
+     *     The property name, not {@code null}
+     * @return
+     *     The property encoding, or empty if there is no such property
+     *
+     * @see Builder#withProperty(String, ValueProvider, PropertyEncoding)
+     */
+    public Optional<PropertyEncoding> getPropertyEncoding(final String property) {
+        Objects.requireNonNull(property);
+
+        for(int i = 0; i < propertyNames.length; i++) {
+            if(propertyNames[i].equals(property)) {
+                return Optional.of(dictionaryEncoded[i] ? PropertyEncoding.DICTIONARY : PropertyEncoding.PLAIN);
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    String[] getPropertyNames() {
+        return propertyNames;
+    }
+
+    String[] getNamespacedPropertyNames() {
+        return namespacedPropertyNames;
+    }
+
+    ValueProvider<SOURCE, ?>[] getValueProviderArray() {
+        return valueProviders;
+    }
+
+    String[] getSharedPropertyNames() {
+        return sharedPropertyNames;
+    }
+
+    boolean[] getDictionaryEncodedArray() {
+        return dictionaryEncoded;
+    }
+
+    SerializableSupplier<?>[] getSharedPropertySupplierArray() {
+        return sharedPropertySuppliers;
+    }
+
+    // Nested
+    //--------------------------------------------------
+
+    // Invoked with the session locked, once the item has been resolved
+    @FunctionalInterface
+    interface ClientCallable<SOURCE> extends Serializable {
+
+        void invoke(SOURCE item, JsonArray arguments, UI ui);
+
+    }
+
+    // Serialized form of a registered definition
+    private record Reference(String id) implements Serializable {
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        @Serial
+        private Object readResolve() throws ObjectStreamException {
+            return ReactRendererDefinitionRegistry.get(id)
+                    .orElseThrow(() -> new InvalidObjectException("No React renderer definition registered with ID: " + id));
+        }
+
+    }
+
+    /**
+     * Builder for {@link ReactRendererDefinition}.
+     *
+     * @param <SOURCE>
+     *     The type of the model object used inside the template
+     */
+    public static final class Builder<SOURCE> implements Serializable {
+
+        // Static fields
+        //--------------------------------------------------
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        // Fields
+        //--------------------------------------------------
+
+        private final ReactTemplate template;
+
+        private String id;
+        private String propertyNamespace;
+
+        private final Map<String, ValueProvider<SOURCE, ?>> valueProviders;
+        private final Set<String> dictionaryEncodedProperties;
+        private final Map<String, SerializableSupplier<?>> sharedPropertySuppliers;
+        private final Map<String, ClientCallable<SOURCE>> clientCallables;
+
+        private boolean lazyRendering;
+        private RenderPriority renderPriority;
+
+        // Constructors
+        //--------------------------------------------------
+
+        private Builder(final ReactTemplate template) {
+            super();
+
+            this.template = template;
+
+            this.valueProviders = new LinkedHashMap<>();
+            this.dictionaryEncodedProperties = new HashSet<>();
+            this.sharedPropertySuppliers = new LinkedHashMap<>();
+            this.clientCallables = new LinkedHashMap<>();
+
+            this.renderPriority = RenderPriority.URGENT;
+        }
+
+        // Methods
+        //--------------------------------------------------
+
+        /**
+         * Sets the stable identifier of the definition.
+         * <p>
+         * The ID must be unique within the application and identical on every
+         * node of a cluster.
+         * It determines the property namespace, and allows the definition to
+         * be {@link ReactRendererDefinitionRegistry#register(ReactRendererDefinition) registered}
+         * and serialized by reference.
+         *
+         * @param id
+         *     The definition ID, not {@code null}
+         * @return
+         *     This builder for method chaining
+         * @throws NullPointerException
+         *     If {@code id} is {@code null}
+         */
+        public Builder<SOURCE> withId(final String id) {
+            Objects.requireNonNull(id);
+
+            if(!id.equals(this.id)) {
+                // Derive the namespace from the new ID
+                this.propertyNamespace = null;
+            }
+            this.id = id;
+
+            return this;
+        }
+
+        /**
+         * Makes a property available to the template expression.
+         *
+         * @param property
+         *     The name of the property used inside the template expression,
+         *     not {@code null}
+         * @param provider
+         *     Provider of the actual value for the property, not {@code null}
+         * @return
+         *     This builder for method chaining
+         * @throws NullPointerException
+         *     If {@code property} or {@code provider} is {@code null}
+         *
+         * @see ReactRenderer#withProperty(String, ValueProvider)
+         */
+        public Builder<SOURCE> withProperty(final String property, final ValueProvider<SOURCE, ?> provider) {
+            return withProperty(property, provider, PropertyEncoding.PLAIN);
+        }
+
+        /**
+         * Makes a property available to the template expression, sending its
+         * values with the specified encoding.
+         *
+         * @param property
+         *     The name of the property used inside the template expression,
+         *     not {@code null}
+         * @param provider
+         *     Provider of the actual value for the property, not {@code null}
+         * @param encoding
+         *     The encoding of the values, not {@code null}
+         * @return
+         *     This builder for method chaining
+         * @throws NullPointerException
+         *     If {@code property}, {@code provider}, or {@code encoding} is
+         *     {@code null}
+         *
+         * @see ReactRenderer#withProperty(String, ValueProvider, PropertyEncoding)
+         */
+        public Builder<SOURCE> withProperty(final String property, final ValueProvider<SOURCE, ?> provider, final PropertyEncoding encoding) {
+            Objects.requireNonNull(property);
+            Objects.requireNonNull(provider);
+            Objects.requireNonNull(encoding);
+
+            valueProviders.put(property, provider);
+            if(encoding == PropertyEncoding.DICTIONARY) {
+                dictionaryEncodedProperties.add(property);
+            } else {
+                dictionaryEncodedProperties.remove(property);
+            }
+
+            return this;
+        }
+
+        /**
+         * Makes a property that has the same value for every item available
+         * to the template expression.
+         *
+         * @param property
+         *     The name of the shared property used inside the template
+         *     expression, not {@code null}
+         * @param supplier
+         *     Supplier of the actual value for the property, not {@code null}
+         * @return
+         *     This builder for method chaining
+         * @throws NullPointerException
+         *     If {@code property} or {@code supplier} is {@code null}
+         *
+         * @see ReactRenderer#withSharedProperty(String, SerializableSupplier)
+         */
+        public Builder<SOURCE> withSharedProperty(final String property, final SerializableSupplier<?> supplier) {
+            Objects.requireNonNull(property);
+            Objects.requireNonNull(supplier);
+
+            sharedPropertySuppliers.put(property, supplier);
+
+            return this;
+        }
+
+        /**
+         * Registers a client-side callable function that takes only the model
+         * item as parameter.
+         *
+         * @param functionName
+         *     The name of the function that can be called from the client-side
+         *     template, must be alphanumeric, not {@code null}
+         * @param handler
+         *     The server-side handler that will be called when the client
+         *     invokes this function, not {@code null}
+         * @return
+         *     This builder for method chaining
+         * @throws NullPointerException
+         *     If {@code functionName} or {@code handler} is {@code null}
+         * @throws IllegalArgumentException
+         *     If {@code functionName} is not alphanumeric
+         *
+         * @see ReactRenderer#withFunction(String, SerializableConsumer)
+         */
+        public Builder<SOURCE> withFunction(final String functionName, final SerializableConsumer<SOURCE> handler) {
+            Objects.requireNonNull(handler);
+
+            return withFunction(functionName, (item, ignored) -> {
+                handler.accept(item);
+            });
+        }
+
+        /**
+         * Registers a client-side callable function that can receive
+         * arguments from the client.
+         *
+         * @param functionName
+         *     The name of the function that can be called from the client-side
+         *     template, must be alphanumeric, not {@code null}
+         * @param handler
+         *     The server-side handler that will be called when the client
+         *     invokes this function.
+         *     Receives the model item and a {@link JsonArray} of arguments
+         *     from the client, not {@code null}
+         * @return
+         *     This builder for method chaining
+         * @throws NullPointerException
+         *     If {@code functionName} or {@code handler} is {@code null}
+         * @throws IllegalArgumentException
+         *     If {@code functionName} is not alphanumeric
+         *
+         * @see ReactRenderer#withFunction(String, SerializableBiConsumer)
+         */
+        public Builder<SOURCE> withFunction(final String functionName, final SerializableBiConsumer<SOURCE, JsonArray> handler) {
+            Objects.requireNonNull(handler);
+
+            return withClientCallable(functionName, (item, arguments, ui) -> {
+                handler.accept(item, arguments);
+            });
+        }
+
+        /**
+         * Registers a client-side callable function, taking only the model
+         * item as parameter, whose handler runs asynchronously.
+         *
+         * @param functionName
+         *     The name of the function that can be called from the client-side
+         *     template, must be alphanumeric, not {@code null}
+         * @param handler
+         *     The server-side handler that will be called on the async
+         *     executor when the client invokes this function.
+         *     May return a command to run with the UI locked, or
+         *     {@code null}, not {@code null}
+         * @return
+         *     This builder for method chaining
+         * @throws NullPointerException
+         *     If {@code functionName} or {@code handler} is {@code null}
+         * @throws IllegalArgumentException
+         *     If {@code functionName} is not alphanumeric
+         *
+         * @see ReactRenderer#withAsyncFunction(String, SerializableFunction)
+         */
+        public Builder<SOURCE> withAsyncFunction(final String functionName, final SerializableFunction<SOURCE, Command> handler) {
+            Objects.requireNonNull(handler);
+
+            return withAsyncFunction(functionName, (item, ignored) -> handler.apply(item));
+        }
+
+        /**
+         * Registers a client-side callable function, receiving arguments from
+         * the client, whose handler runs asynchronously.
+         * <p>
+         * The returned command is run through {@link UI#access(Command)} from
+         * the executor thread, so its UI changes need server push
+         * ({@code @Push}) or polling to reach the browser; otherwise, they
+         * wait for the next request the browser sends.
+         *
+         * @param functionName
+         *     The name of the function that can be called from the client-side
+         *     template, must be alphanumeric, not {@code null}
+         * @param handler
+         *     The server-side handler that will be called on the async
+         *     executor when the client invokes this function.
+         *     Receives the model item and a {@link JsonArray} of arguments
+         *     from the client, and may return a command to run with the UI
+         *     locked, or {@code null}, not {@code null}
+         * @return
+         *     This builder for method chaining
+         * @throws NullPointerException
+         *     If {@code functionName} or {@code handler} is {@code null}
+         * @throws IllegalArgumentException
+         *     If {@code functionName} is not alphanumeric
+         *
+         * @see ReactRenderer#withAsyncFunction(String, SerializableBiFunction)
+         */
+        public Builder<SOURCE> withAsyncFunction(final String functionName, final SerializableBiFunction<SOURCE, JsonArray, Command> handler) {
+            Objects.requireNonNull(handler);
+
+            return withClientCallable(functionName, (item, arguments, ui) -> {
+                ReactRenderer.getAsyncExecutor().execute(() -> {
+                    final Command command;
+                    try {
+                        command = handler.apply(item, arguments);
+                    } catch(final RuntimeException | Error e) {
+                        // Report through the session error handler, rather than
+                        // letting the executor swallow it
+                        ui.access(() -> {
+                            throw e;
+                        });
+
+                        return;
+                    }
+
+                    if(command != null) {
+                        ui.access(command);
+                    }
+                });
+            });
+        }
+
+        private Builder<SOURCE> withClientCallable(final String functionName, final ClientCallable<SOURCE> callable) {
+            Objects.requireNonNull(functionName);
+
+            if(!ALPHANUMERIC_PATTERN.matcher(functionName).matches()) {
+                throw new IllegalArgumentException("Function name must be alphanumeric: " + functionName);
+            }
+
+            clientCallables.put(functionName, callable);
+
+            return this;
+        }
+
+        /**
+         * Enables or disables lazy rendering.
+         * <p>
+         * When enabled, a cell is first rendered as a blank placeholder.
+         * The React render is deferred until the cell is in the viewport and
+         * the browser is idle, and is cancelled if the cell leaves the
+         * viewport first, e.g., during a fast scroll.
+         * This keeps scrolling smooth in grids with heavy templates, at the
+         * cost of cells appearing slightly after they scroll into view.
+         * <p>
+         * Pending cells carry the {@code data-react-renderer-pending}
+         * attribute.
+         *
+         * @param lazyRendering
+         *     {@code true} to enable lazy rendering, {@code false} to render
+         *     cells immediately
+         * @return
+         *     This builder for method chaining
+         */
+        public Builder<SOURCE> withLazyRendering(final boolean lazyRendering) {
+            this.lazyRendering = lazyRendering;
+
+            return this;
+        }
+
+        /**
+         * Sets the priority of renders caused by data refreshes.
+         * <p>
+         * With {@link RenderPriority#TRANSITION} or
+         * {@link RenderPriority#FRAME_BUDGET}, re-rendering thousands of cells
+         * after a refresh does not compete with typing and clicking.
+         * Renders of new cells and of cells the user is interacting with
+         * remain urgent.
+         *
+         * @param renderPriority
+         *     The render priority, not {@code null}
+         * @return
+         *     This builder for method chaining
+         * @throws NullPointerException
+         *     If {@code renderPriority} is {@code null}
+         */
+        public Builder<SOURCE> withRenderPriority(final RenderPriority renderPriority) {
+            Objects.requireNonNull(renderPriority);
+
+            this.renderPriority = renderPriority;
+
+            return this;
+        }
+
+        /**
+         * Creates an immutable definition from the current state of this
+         * builder.
+         *
+         * @return
+         *     A new definition
+         */
+        public ReactRendererDefinition<SOURCE> build() {
+            return new ReactRendererDefinition<>(this);
+        }
+
+    }
+
+}
@@ -0,0 +1,119 @@
+package com.oliveryasuna.vaadin.reactrenderer;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * JVM-wide registry of {@link ReactRendererDefinition}s by their stable
+ * {@link ReactRendererDefinition#getId() ID}.
+ * <p>
+ * A registered definition is serialized as a reference to its ID rather than
+ * with its template and providers, and resolved from this registry on
+ * deserialization.
+ * This keeps replicated session payloads small in clustered deployments.
+ * <p>
+ * Every node must register the same definitions under the same IDs before
+ * sessions are deserialized, e.g., from a
+ * {@code VaadinServiceInitListener} or the static initializer of a class
+ * loaded at startup.
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * public static final ReactRendererDefinition<Person> NAME = ReactRendererDefinitionRegistry.register(
+ *     ReactRendererDefinition.<Person>jsx("({item}) => <span>{item.name}</span>")
+ *         .withId("person-name")
+ *         .withProperty("name", Person::getName)
+ *         .build()
+ * );
+ * }</pre>
+ *
+ * @see ReactRendererDefinition.Builder#withId(String)
+ */
+public final class ReactRendererDefinitionRegistry {
+
+    // Static fields
+    //--------------------------------------------------
+
+    private static final Map<String, ReactRendererDefinition<?>> DEFINITIONS = new ConcurrentHashMap<>();
+
+    // Constructors
+    //--------------------------------------------------
+
+    private ReactRendererDefinitionRegistry() {
+        super();
+
+        throw new UnsupportedOperationException();
+    }
+
+    // Static methods
+    //--------------------------------------------------
+
+    /**
+     * Registers a definition under its ID.
+     * <p>
+     * A definition previously registered under the same ID is replaced, so
+     * re-running registration code (e.g., after a hot redeploy) is safe.
+     *
+     * @param definition
+     *     The definition, not {@code null}
+     * @param <SOURCE>
+     *     The type of the model object used inside the template
+     * @return
+     *     The registered definition
+     * @throws NullPointerException
+     *     If {@code definition} is {@code null}
+     * @throws IllegalArgumentException
+     *     If {@code definition} has no ID
+     */
+    public static <SOURCE> ReactRendererDefinition<SOURCE> register(final ReactRendererDefinition<SOURCE> definition) {
+        Objects.requireNonNull(definition);
+
+        if(definition.getId() == null) {
+            throw new IllegalArgumentException("Definition must have an ID to be registered");
+        }
+
+        DEFINITIONS.put(definition.getId(), definition);
+
+        return definition;
+    }
+
+    /**
+     * Unregisters the definition with the specified ID.
+     *
+     * @param id
+     *     The definition ID, not {@code null}
+     * @return
+     *     {@code true} if a definition was registered under the ID,
+     *     {@code false} otherwise
+     * @throws NullPointerException
+     *     If {@code id} is {@code null}
+     */
+    public static boolean unregister(final String id) {
+        Objects.requireNonNull(id);
+
+        return (DEFINITIONS.remove(id) != null);
+    }
+
+    /**
+     * Returns the definition registered under the specified ID.
+     *
+     * @param id
+     *     The definition ID, not {@code null}
+     * @return
+     *     The registered definition, or empty if there is none
+     * @throws NullPointerException
+     *     If {@code id} is {@code null}
+     */
+    public static Optional<ReactRendererDefinition<?>> get(final String id) {
+        Objects.requireNonNull(id);
+
+        return Optional.ofNullable(DEFINITIONS.get(id));
+    }
+
+    static boolean isRegistered(final ReactRendererDefinition<?> definition) {
+        return (definition.getId() != null && DEFINITIONS.get(definition.getId()) == definition);
+    }
+
+}
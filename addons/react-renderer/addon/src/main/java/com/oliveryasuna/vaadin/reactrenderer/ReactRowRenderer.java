@@ -0,0 +1,377 @@
+package com.oliveryasuna.vaadin.reactrenderer;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.data.provider.DataGenerator;
+import com.vaadin.flow.data.provider.DataKeyMapper;
+import com.vaadin.flow.data.renderer.Renderer;
+import com.vaadin.flow.data.renderer.Rendering;
+import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.shared.Registration;
+import elemental.json.Json;
+import elemental.json.JsonObject;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * A {@link ReactRenderer} that renders a single React tree per row and
+ * projects it into several cells.
+ * <p>
+ * Using a {@link ReactRenderer} for each column of a {@code Grid} means a
+ * property namespace, a data generator, an attach listener and a React root
+ * per column and row.
+ * A row renderer declares its properties once, generates one payload per
+ * item and renders one React tree per row, however many columns it spans.
+ * Each column gets a {@link #cell(String) cell renderer}, and the template
+ * places content in a cell with the {@code Cell} component it receives as a
+ * prop:
+ * <pre>{@code
+ * ReactRowRenderer<Person> row = ReactRowRenderer.of(
+ *     ReactRendererDefinition.<Person>jsx(
+ *         "({item, Cell, handleClick}) => <>" +
+ *         "  <Cell name='name'><b>{item.name}</b></Cell>" +
+ *         "  <Cell name='actions'><button onClick={handleClick}>Edit</button></Cell>" +
+ *         "</>"
+ *     )
+ *     .withProperty("name", Person::getName)
+ *     .withFunction("handleClick", this::edit)
+ *     .build()
+ * );
+ *
+ * grid.addColumn(row.cell("name")).setHeader("Name");
+ * grid.addColumn(row.cell("actions")).setHeader("Actions");
+ * }</pre>
+ * <p>
+ * Cells of one row share React state and context, and a single client
+ * callable serves all of them.
+ * <p>
+ * Used directly as a renderer, e.g., for {@code Grid} item details or
+ * {@code VirtualList} items, a row renderer behaves like a
+ * {@link ReactRenderer}, and {@code Cell} renders its children in place.
+ * <p>
+ * Lazy rendering does not apply to rows projected into cells, as their React
+ * trees are not part of the document.
+ * A row renderer should either be used for cells or directly in a component,
+ * not both with the same data key mapper, since the two would write the same
+ * properties into each item.
+ *
+ * @param <SOURCE>
+ *     The type of the model object used inside the template
+ *
+ * @see #of(ReactRendererDefinition)
+ * @see #cell(String)
+ */
+public class ReactRowRenderer<SOURCE> extends ReactRenderer<SOURCE> {
+
+    // Fields
+    //--------------------------------------------------
+
+    // Rows by the key mapper of the component whose cells they span
+    private final Map<DataKeyMapper<SOURCE>, Row> rows;
+
+    // Constructors
+    //--------------------------------------------------
+
+    protected ReactRowRenderer(final ReactRendererDefinition<SOURCE> definition) {
+        super(definition);
+
+        this.rows = new IdentityHashMap<>();
+    }
+
+    // Static methods
+    //--------------------------------------------------
+
+    /**
+     * Creates a new {@link ReactRowRenderer} from a definition.
+     * <p>
+     * Configure properties and functions on the definition before creating
+     * the row renderer, as the {@code with} methods inherited from
+     * {@link ReactRenderer} return the renderer as a {@link ReactRenderer}.
+     *
+     * @param definition
+     *     The renderer definition, not {@code null}
+     * @param <SOURCE>
+     *     The type of the model object used inside the template
+     * @return
+     *     A new {@link ReactRowRenderer} instance
+     * @throws NullPointerException
+     *     If {@code definition} is {@code null}
+     *
+     * @see ReactRendererDefinition
+     */
+    public static <SOURCE> ReactRowRenderer<SOURCE> of(final ReactRendererDefinition<SOURCE> definition) {
+        Objects.requireNonNull(definition);
+
+        return new ReactRowRenderer<>(definition);
+    }
+
+    // Methods
+    //--------------------------------------------------
+
+    /**
+     * Returns a renderer for the cells of the given slot, e.g., for a
+     * {@code Grid} column.
+     * <p>
+     * The content the template renders in {@code <Cell name={slot}>} is
+     * shown in the cells of the returned renderer.
+     * All cell renderers of this row renderer in one component share a
+     * single data generator and React tree per row.
+     * <p>
+     * Cells are grouped into rows by their container: the cells of columns
+     * (elements whose tag ends in {@code -column}, such as
+     * {@code vaadin-grid-column}) share the rows of the grid the columns are
+     * in, directly or in column groups.
+     * In any other container, e.g., a {@code ComboBox}, the cell renderer
+     * gets rows of its own, which only contain its slot.
+     *
+     * @param slot
+     *     The name of the slot, not {@code null}
+     * @return
+     *     A renderer for the cells of the slot
+     * @throws NullPointerException
+     *     If {@code slot} is {@code null}
+     */
+    public Renderer<SOURCE> cell(final String slot) {
+        Objects.requireNonNull(slot);
+
+        return new CellRenderer(slot);
+    }
+
+    // Nested
+    //--------------------------------------------------
+
+    private final class CellRenderer extends Renderer<SOURCE> {
+
+        // Static fields
+        //--------------------------------------------------
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        // Fields
+        //--------------------------------------------------
+
+        private final String slot;
+
+        // Constructors
+        //--------------------------------------------------
+
+        private CellRenderer(final String slot) {
+            super();
+
+            this.slot = slot;
+        }
+
+        // Methods
+        //--------------------------------------------------
+
+        @Override
+        public Rendering<SOURCE> render(final Element container, final DataKeyMapper<SOURCE> keyMapper, final String rendererName) {
+            final Row row = rows.computeIfAbsent(keyMapper, Row::new);
+            final Cell cell = new Cell(row, container, rendererName, slot);
+            final DataGenerator<SOURCE> dataGenerator = row::generateData;
+            final Registration registration = cell.register();
+
+            return new Rendering<>() {
+                @Override
+                public Optional<DataGenerator<SOURCE>> getDataGenerator() {
+                    return Optional.of(dataGenerator);
+                }
+
+                @Override
+                public Registration getRegistration() {
+                    return registration;
+                }
+            };
+        }
+
+    }
+
+    // The rows of this renderer in one component. The binding is registered
+    // on the element of the component rather than a cell container, so that
+    // it outlives any single column, and its state is released along with the
+    // component.
+    private final class Row implements Serializable {
+
+        // Static fields
+        //--------------------------------------------------
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        // Fields
+        //--------------------------------------------------
+
+        private final DataKeyMapper<SOURCE> keyMapper;
+
+        private final List<Cell> cells;
+
+        private Binding binding;
+        private Registration bindingRegistration;
+        // Element the binding is registered on
+        private Element owner;
+
+        // Constructors
+        //--------------------------------------------------
+
+        private Row(final DataKeyMapper<SOURCE> keyMapper) {
+            super();
+
+            this.keyMapper = keyMapper;
+
+            this.cells = new ArrayList<>();
+        }
+
+        // Methods
+        //--------------------------------------------------
+
+        // Each cell contributes a data generator, but the row payload is only
+        // generated by the first one to run for an item
+        private void generateData(final SOURCE item, final JsonObject jsonObject) {
+            if(binding == null || binding.hasGeneratedData(jsonObject)) {
+                return;
+            }
+
+            binding.generateData(item, jsonObject);
+        }
+
+        // Sets the row and every attached cell, so that they arrive on the
+        // client in the same batch. Once per round trip: the attach listeners
+        // of the other cells only (re)set their own cell.
+        private void set(final Cell cell) {
+            final Element owner = ReactRendererBatch.findOwner(cell.container);
+            if(binding != null && owner.equals(this.owner)
+                    && ReactRendererBatch.get(getElementUI(owner)).isSetPending(binding.getRendererId())) {
+                cell.set();
+
+                return;
+            }
+
+            if(binding == null || !owner.equals(this.owner)) {
+                if(bindingRegistration != null) {
+                    bindingRegistration.remove();
+                }
+
+                this.owner = owner;
+                binding = new Binding(owner, keyMapper, null);
+                bindingRegistration = binding.register();
+            } else {
+                binding.set();
+            }
+
+            for(final Cell attachedCell : cells) {
+                if(attachedCell.container.getNode().isAttached()) {
+                    attachedCell.set();
+                }
+            }
+        }
+
+        private void remove(final Cell cell) {
+            cells.remove(cell);
+            if(!cells.isEmpty()) {
+                return;
+            }
+
+            rows.remove(keyMapper);
+            if(bindingRegistration != null) {
+                bindingRegistration.remove();
+            }
+            binding = null;
+            bindingRegistration = null;
+            owner = null;
+        }
+
+    }
+
+    // A cell renderer in a single container
+    private final class Cell implements Serializable {
+
+        // Static fields
+        //--------------------------------------------------
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        // Fields
+        //--------------------------------------------------
+
+        private final Row row;
+        private final Element container;
+        private final String rendererName;
+        private final String slot;
+
+        private final String rendererId;
+
+        // UI the cell was last set in, for unsetting it after the container
+        // has been detached
+        private UI ui;
+
+        // Constructors
+        //--------------------------------------------------
+
+        private Cell(final Row row, final Element container, final String rendererName, final String slot) {
+            super();
+
+            this.row = row;
+            this.container = container;
+            this.rendererName = rendererName;
+            this.slot = slot;
+
+            this.rendererId = definition.getPropertyNamespace() + "c" + UUID.randomUUID().toString().substring(0, 8);
+        }
+
+        // Methods
+        //--------------------------------------------------
+
+        private Registration register() {
+            row.cells.add(this);
+
+            // (Re)sets the row along with the cell, e.g., after a page reload
+            final Registration attachRegistration = container.addAttachListener(event -> row.set(this));
+
+            if(container.getNode().isAttached()) {
+                row.set(this);
+            }
+
+            return () -> {
+                attachRegistration.remove();
+                unset();
+                row.remove(this);
+            };
+        }
+
+        private void set() {
+            ui = getElementUI(container);
+
+            final JsonObject renderer = Json.createObject();
+            renderer.put("rendererName", rendererName);
+            renderer.put("rendererId", rendererId);
+            renderer.put("rowRendererId", row.binding.getRendererId());
+            renderer.put("slot", slot);
+
+            ReactRendererBatch.get(ui).set(container, rendererId, renderer, null);
+        }
+
+        private void unset() {
+            if(ui == null) {
+                return;
+            }
+
+            final JsonObject renderer = Json.createObject();
+            renderer.put("rendererName", rendererName);
+            renderer.put("rendererId", rendererId);
+
+            ReactRendererBatch.get(ui).unset(container, rendererId, renderer);
+            ui = null;
+        }
+
+    }
+
+}
@@ -0,0 +1,142 @@
+package com.oliveryasuna.vaadin.reactrenderer;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * An immutable, canonical React template expression.
+ * <p>
+ * Templates are interned in a JVM-wide, bounded registry: every call to
+ * {@link #of(String, boolean)} with an equivalent expression returns the same
+ * instance, so renderers created for thousands of sessions share a single
+ * template object.
+ * Each template is identified by an {@link #getId() ID} derived from its
+ * normalized expression, which is sent to the client instead of being
+ * recomputed there.
+ * <p>
+ * Normalization only removes leading and trailing blank lines, so the same
+ * template declared in a text block or on a single line maps to the same
+ * instance.
+ * Indentation and trailing whitespace are kept, as they may be significant,
+ * e.g., in template literals.
+ *
+ * @see ReactRenderer#of(String, boolean)
+ */
+public final class ReactTemplate implements Serializable {
+
+    // Static fields
+    //--------------------------------------------------
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    // Fields
+    //--------------------------------------------------
+
+    private final String id;
+    private final String expression;
+    private final boolean jsx;
+
+    // Constructors
+    //--------------------------------------------------
+
+    ReactTemplate(final String id, final String expression, final boolean jsx) {
+        super();
+
+        this.id = id;
+        this.expression = expression;
+        this.jsx = jsx;
+    }
+
+    // Static methods
+    //--------------------------------------------------
+
+    /**
+     * Returns the canonical template for the specified expression.
+     *
+     * @param expression
+     *     The JavaScript template expression, not {@code null}
+     * @param jsx
+     *     {@code true} if the expression uses JSX syntax and must be
+     *     transpiled, {@code false} otherwise
+     * @return
+     *     The canonical template instance
+     * @throws NullPointerException
+     *     If {@code expression} is {@code null}
+     */
+    public static ReactTemplate of(final String expression, final boolean jsx) {
+        Objects.requireNonNull(expression);
+
+        return ReactTemplateRegistry.intern(expression, jsx);
+    }
+
+    // Methods
+    //--------------------------------------------------
+
+    @Serial
+    private Object readResolve() {
+        // Re-intern so deserialized sessions share the canonical instance
+        return ReactTemplateRegistry.intern(this);
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if(this == other) {
+            return true;
+        }
+        if(!(other instanceof final ReactTemplate otherTemplate)) {
+            return false;
+        }
+
+        return (jsx == otherTemplate.jsx && id.equals(otherTemplate.id) && expression.equals(otherTemplate.expression));
+    }
+
+    @Override
+    public int hashCode() {
+        return id.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "ReactTemplate[" + id + "]";
+    }
+
+    // Getters/setters
+    //--------------------------------------------------
+
+    /**
+     * Returns the identifier of this template.
+     * <p>
+     * The identifier is derived from the normalized expression and the
+     * transpilation mode, so it is stable across JVMs.
+     *
+     * @return
+     *     The template identifier
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Returns the normalized template expression.
+     *
+     * @return
+     *     The template expression
+     */
+    public String getExpression() {
+        return expression;
+    }
+
+    /**
+     * Returns whether the template uses JSX syntax.
+     *
+     * @return
+     *     {@code true} if the template must be transpiled, {@code false}
+     *     otherwise
+     */
+    public boolean isJsx() {
+        return jsx;
+    }
+
+}
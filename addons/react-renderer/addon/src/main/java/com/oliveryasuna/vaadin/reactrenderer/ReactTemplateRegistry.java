@@ -0,0 +1,100 @@
+package com.oliveryasuna.vaadin.reactrenderer;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * JVM-wide, bounded registry of {@link ReactTemplate}s.
+ * <p>
+ * Templates are keyed by their identifier and evicted least recently used
+ * first once the registry holds more than {@link #MAX_SIZE} entries.
+ * Evicted templates remain valid; they are simply no longer shared with
+ * renderers created afterward.
+ * <p>
+ * The bound can be configured with the
+ * {@value #MAX_SIZE_PROPERTY} system property.
+ */
+final class ReactTemplateRegistry {
+
+    // Static fields
+    //--------------------------------------------------
+
+    static final String MAX_SIZE_PROPERTY = "reactrenderer.templateRegistry.maxSize";
+
+    static final int MAX_SIZE = Integer.getInteger(MAX_SIZE_PROPERTY, 1024);
+
+    // 128 bits keeps collisions out of reach while staying short on the wire
+    private static final int ID_BYTES = 16;
+
+    private static final Pattern LEADING_BLANK_LINES = Pattern.compile("\\A(?:\\h*\\R)+");
+    private static final Pattern TRAILING_BLANK_LINES = Pattern.compile("(?:\\R\\h*)+\\z");
+
+    private static final Map<String, ReactTemplate> TEMPLATES = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, ReactTemplate> eldest) {
+            return (size() > MAX_SIZE);
+        }
+    };
+
+    // Constructors
+    //--------------------------------------------------
+
+    private ReactTemplateRegistry() {
+        super();
+
+        throw new UnsupportedOperationException();
+    }
+
+    // Static methods
+    //--------------------------------------------------
+
+    static ReactTemplate intern(final String expression, final boolean jsx) {
+        final String normalizedExpression = normalize(expression);
+
+        return intern(new ReactTemplate(computeId(normalizedExpression, jsx), normalizedExpression, jsx));
+    }
+
+    static ReactTemplate intern(final ReactTemplate template) {
+        synchronized(TEMPLATES) {
+            final ReactTemplate existing = TEMPLATES.putIfAbsent(template.getId(), template);
+
+            // On an ID collision, the new template is used as is, unshared
+            return ((existing != null && existing.equals(template)) ? existing : template);
+        }
+    }
+
+    static int size() {
+        synchronized(TEMPLATES) {
+            return TEMPLATES.size();
+        }
+    }
+
+    private static String normalize(final String expression) {
+        final String withoutLeading = LEADING_BLANK_LINES.matcher(expression).replaceFirst("");
+
+        return TRAILING_BLANK_LINES.matcher(withoutLeading).replaceFirst("");
+    }
+
+    private static String computeId(final String normalizedExpression, final boolean jsx) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch(final NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+
+        digest.update((byte)(jsx ? 1 : 0));
+        final byte[] hash = digest.digest(normalizedExpression.getBytes(StandardCharsets.UTF_8));
+
+        final byte[] id = new byte[ID_BYTES];
+        System.arraycopy(hash, 0, id, 0, ID_BYTES);
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(id);
+    }
+
+}
@@ -0,0 +1,52 @@
+package com.oliveryasuna.vaadin.reactrenderer;
+
+/**
+ * The priority of React renders caused by data refreshes, i.e., re-renders of
+ * cells for the item they already display.
+ * <p>
+ * Renders of new cells, of cells reused for another item (e.g., when
+ * scrolling), and of cells the user is interacting with (focused, or clicked
+ * or typed into within the last second) are always urgent.
+ *
+ * @see ReactRenderer#withRenderPriority(RenderPriority)
+ */
+public enum RenderPriority {
+
+    /**
+     * Every render is committed immediately.
+     * This is the default.
+     */
+    URGENT("urgent"),
+
+    /**
+     * Data refreshes are rendered inside a React transition
+     * ({@code startTransition}), which React interrupts to handle user input.
+     */
+    TRANSITION("transition"),
+
+    /**
+     * Data refreshes are queued and committed over successive animation
+     * frames, spending a limited time budget per frame.
+     */
+    FRAME_BUDGET("frame");
+
+    // Fields
+    //--------------------------------------------------
+
+    private final String clientName;
+
+    // Constructors
+    //--------------------------------------------------
+
+    RenderPriority(final String clientName) {
+        this.clientName = clientName;
+    }
+
+    // Getters/setters
+    //--------------------------------------------------
+
+    String getClientName() {
+        return clientName;
+    }
+
+}
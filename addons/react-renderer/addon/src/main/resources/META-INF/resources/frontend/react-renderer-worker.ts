@@ -0,0 +1,22 @@
+import * as Babel from '@babel/standalone';
+
+// Transpiles JSX templates off the main thread for react-renderer.ts
+
+type TranspileRequest = {id: number; templateExpression: string; options: Parameters<typeof Babel.transform>[1];};
+type TranspileResponse = {id: number; code?: string; error?: string;};
+
+self.onmessage = (event: MessageEvent<TranspileRequest>): void => {
+    const {id, templateExpression, options} = event.data;
+
+    let response: TranspileResponse;
+    try {
+        const result = Babel.transform(templateExpression, options);
+        response = (result && result.code
+            ? {id: id, code: result.code}
+            : {id: id, error: 'Babel transformation returned empty result'});
+    } catch(err: unknown) {
+        response = {id: id, error: String(err)};
+    }
+
+    self.postMessage(response);
+};
@@ -1,25 +1,726 @@
 import React from 'react';
+import {createPortal, flushSync} from 'react-dom';
 import {createRoot, Root} from 'react-dom/client';
-import * as Babel from '@babel/standalone';
 
-type RenderRoot = HTMLElement & {__reactRenderer?: Renderer; __reactRoot?: Root;};
+type RenderRoot = HTMLElement & {
+    __reactRenderer?: Renderer;
+    __reactRoot?: Root;
+    __rootRef?: WeakRef<RenderRoot>;
+    __pendingRender?: () => void;
+    __rerender?: () => void;
+    __unresolved?: boolean;
+    __itemKey?: string;
+    // Row hosts only: the cells the row is projected into, by slot
+    __cells?: Map<string, HTMLElement>;
+    __cellsChanged?: boolean;
+    __rowKey?: string;
+    __rowModel?: ItemModel;
+    // Cells only: the row host projected into the cell
+    __rowHost?: RenderRoot;
+};
 type ItemModel = {item: any; index: number;}
-type Renderer = ((root: RenderRoot, rendererOwner: HTMLElement, model: ItemModel) => void) & {__rendererId?: string;};
+type Renderer = ((root: RenderRoot, rendererOwner: HTMLElement, model: ItemModel) => void) & {
+    __rendererId?: string;
+    __setSharedProperties?: (sharedProperties: Record<string, any>) => void;
+    __updateDictionaries?: (deltas: Record<string, [number, any[]]>) => void;
+    __renderCell?: (slot: string, root: RenderRoot, model: ItemModel) => void;
+    __removeCell?: (slot: string) => void;
+    __release?: () => void;
+};
+type BabelModule = typeof import('@babel/standalone');
 type Component = HTMLElement & Record<string, (Renderer | undefined)>;
+type ReactComponentType = (props: any) => React.ReactNode;
+type RendererOptions = {lazy?: boolean; priority?: 'urgent' | 'transition' | 'frame'; row?: boolean;};
+type ReturnChannel = (name: string, itemKey: string, args: any[]) => void;
+type RendererRegistration = {
+    // Absent for rows, which are not assigned to a component
+    rendererName?: string;
+    rendererId: string;
+    templateId: string;
+    // Only sent the first time the template is used in the UI
+    templateExpression?: string;
+    transpile: boolean;
+    clientCallables: string[];
+    propertyNamespace: string;
+    appId: string;
+    sharedProperties: Record<string, any>;
+    dictionaries: Record<string, any[]>;
+    // Prefix of the item keys of dictionary codes, unique to the renderer
+    dictionaryKeyPrefix: string;
+    options: RendererOptions;
+};
+type CellRendererRegistration = {
+    rendererName: string;
+    rendererId: string;
+    rowRendererId: string;
+    slot: string;
+};
+
+// Bump when the Babel options below change so stale entries are ignored.
+const TRANSPILE_OPTIONS_VERSION = 1;
+
+// Must match the @babel/standalone version of the @NpmPackage on ReactRenderer;
+// Babel itself is only loaded when the worker is unavailable.
+const BABEL_VERSION = '7.27.1';
+
+const TEMPLATE_CACHE_PREFIX = 'vaadin-react-renderer:template:';
+const TEMPLATE_CACHE_INDEX_KEY = 'vaadin-react-renderer:template-index';
+const TEMPLATE_CACHE_MAX_ENTRIES = 256;
+const TEMPLATE_CACHE_MAX_CHARS = 1024 * 1024;
+
+type TemplateCacheIndexEntry = {key: string; size: number;};
+
+// Templates transpiled (or restored) during this page load
+const transpiledTemplates: Map<string, string> = new Map();
+
+// React components by server-side template ID, shared by all renderers
+const reactComponents: Map<string, ReactComponentType> = new Map();
+
+// Template expressions by server-side template ID, as the server only sends
+// each expression once
+const templateExpressions: Map<string, string> = new Map();
+
+// 53-bit string hash (cyrb53); collisions are harmless because the full
+// template is stored alongside the code and compared on read.
+const hashString = (value: string): string => {
+    let h1: number = 0xdeadbeef;
+    let h2: number = 0x41c6ce57;
+    for(let i = 0; i < value.length; i++) {
+        const ch: number = value.charCodeAt(i);
+        h1 = Math.imul(h1 ^ ch, 2654435761);
+        h2 = Math.imul(h2 ^ ch, 1597334677);
+    }
+    h1 = Math.imul(h1 ^ (h1 >>> 16), 2246822507) ^ Math.imul(h2 ^ (h2 >>> 13), 3266489909);
+    h2 = Math.imul(h2 ^ (h2 >>> 16), 2246822507) ^ Math.imul(h1 ^ (h1 >>> 13), 3266489909);
+
+    return (4294967296 * (2097151 & h2) + (h1 >>> 0)).toString(36);
+};
+
+const templateCacheKey = (templateExpression: string): string =>
+    `${BABEL_VERSION}:${TRANSPILE_OPTIONS_VERSION}:${hashString(templateExpression)}`;
+
+const getTemplateStorage = (): Storage | undefined => {
+    try {
+        return window.localStorage;
+    } catch(_err: unknown) {
+        // Storage may be disabled (e.g., privacy settings)
+        return undefined;
+    }
+};
+
+const readTemplateCacheIndex = (storage: Storage): TemplateCacheIndexEntry[] => {
+    try {
+        const index: unknown = JSON.parse(storage.getItem(TEMPLATE_CACHE_INDEX_KEY) ?? '[]');
+
+        return (Array.isArray(index) ? index : []);
+    } catch(_err: unknown) {
+        return [];
+    }
+};
+
+// Removes least recently used entries until the index fits the given bounds.
+const evictTemplateCacheEntries = (storage: Storage, index: TemplateCacheIndexEntry[], maxEntries: number, maxChars: number): void => {
+    let totalChars: number = index.reduce((acc: number, entry: TemplateCacheIndexEntry): number => acc + entry.size, 0);
+    while(index.length > 0 && (index.length > maxEntries || totalChars > maxChars)) {
+        const evicted: TemplateCacheIndexEntry = index.shift()!;
+        storage.removeItem(TEMPLATE_CACHE_PREFIX + evicted.key);
+        totalChars -= evicted.size;
+    }
+};
+
+const loadPersistedTemplate = (key: string, templateExpression: string): string | undefined => {
+    const storage: Storage | undefined = getTemplateStorage();
+    if(!storage) {
+        return undefined;
+    }
+
+    try {
+        const raw: string | null = storage.getItem(TEMPLATE_CACHE_PREFIX + key);
+        if(raw === null) {
+            return undefined;
+        }
+
+        const [template, code] = JSON.parse(raw) as [string, string];
+        if(template !== templateExpression) {
+            return undefined;
+        }
+
+        // Mark as most recently used
+        const index: TemplateCacheIndexEntry[] = readTemplateCacheIndex(storage);
+        const position: number = index.findIndex((entry: TemplateCacheIndexEntry): boolean => entry.key === key);
+        if(position !== -1 && position !== index.length - 1) {
+            index.push(...index.splice(position, 1));
+            storage.setItem(TEMPLATE_CACHE_INDEX_KEY, JSON.stringify(index));
+        }
+
+        return code;
+    } catch(_err: unknown) {
+        return undefined;
+    }
+};
+
+const persistTemplate = (key: string, templateExpression: string, code: string): void => {
+    const storage: Storage | undefined = getTemplateStorage();
+    if(!storage) {
+        return;
+    }
+
+    const raw: string = JSON.stringify([templateExpression, code]);
+    if(raw.length > TEMPLATE_CACHE_MAX_CHARS) {
+        return;
+    }
+
+    const index: TemplateCacheIndexEntry[] = readTemplateCacheIndex(storage)
+        .filter((entry: TemplateCacheIndexEntry): boolean => entry.key !== key);
+    index.push({key: key, size: raw.length});
+
+    try {
+        evictTemplateCacheEntries(storage, index, TEMPLATE_CACHE_MAX_ENTRIES, TEMPLATE_CACHE_MAX_CHARS);
+        storage.setItem(TEMPLATE_CACHE_PREFIX + key, raw);
+        storage.setItem(TEMPLATE_CACHE_INDEX_KEY, JSON.stringify(index));
+    } catch(_err: unknown) {
+        // Quota exceeded, most likely; make room by halving the cache and retry once
+        try {
+            evictTemplateCacheEntries(storage, index, Math.max(1, Math.floor(index.length / 2)), TEMPLATE_CACHE_MAX_CHARS);
+            storage.setItem(TEMPLATE_CACHE_PREFIX + key, raw);
+            storage.setItem(TEMPLATE_CACHE_INDEX_KEY, JSON.stringify(index));
+        } catch(_retryErr: unknown) {
+            storage.removeItem(TEMPLATE_CACHE_PREFIX + key);
+        }
+    }
+};
+
+const BABEL_OPTIONS: Parameters<BabelModule['transform']>[1] = {
+    presets: [['react', {runtime: 'classic'}]],
+    plugins: [],
+    filename: 'template.jsx'
+};
+
+// Returns previously transpiled code from the in-memory or persistent cache
+const findTranspiledTemplate = (templateExpression: string): string | undefined => {
+    const transpiled: string | undefined = transpiledTemplates.get(templateExpression);
+    if(transpiled !== undefined) {
+        return transpiled;
+    }
+
+    const persisted: string | undefined = loadPersistedTemplate(templateCacheKey(templateExpression), templateExpression);
+    if(persisted !== undefined) {
+        transpiledTemplates.set(templateExpression, persisted);
+    }
+
+    return persisted;
+};
+
+const storeTranspiledTemplate = (templateExpression: string, code: string): void => {
+    transpiledTemplates.set(templateExpression, code);
+    persistTemplate(templateCacheKey(templateExpression), templateExpression, code);
+};
+
+let babel: Promise<BabelModule> | undefined;
+
+// Loads Babel on the main thread, on first use only
+const loadBabel = (): Promise<BabelModule> => {
+    if(!babel) {
+        babel = import('@babel/standalone');
+    }
+
+    return babel;
+};
+
+// Transpiles a JSX template expression to plain JavaScript on the main thread
+const transpileTemplate = async (templateExpression: string): Promise<string> => {
+    const cached: string | undefined = findTranspiledTemplate(templateExpression);
+    if(cached !== undefined) {
+        return cached;
+    }
+
+    const Babel: BabelModule = await loadBabel();
+
+    // Transform JSX to React.createElement calls
+    const result = Babel.transform(templateExpression, BABEL_OPTIONS);
+
+    if(!result || !result.code) {
+        throw (new Error('Babel transformation returned empty result'));
+    }
+
+    storeTranspiledTemplate(templateExpression, result.code);
+
+    return result.code;
+};
+
+type TranspileJob = {resolve: (code: string) => void; reject: (err: unknown) => void;};
+
+let transpileWorker: Worker | null | undefined;
+let nextTranspileJobId: number = 0;
+const transpileJobs: Map<number, TranspileJob> = new Map();
+// In-flight transpilations by template, so each is only sent once
+const pendingTranspilations: Map<string, Promise<string>> = new Map();
+
+// Lazily starts the transpilation worker; null if workers are unavailable
+const getTranspileWorker = (): Worker | null => {
+    if(transpileWorker !== undefined) {
+        return transpileWorker;
+    }
+
+    try {
+        transpileWorker = new Worker(new URL('./react-renderer-worker.ts', import.meta.url), {type: 'module'});
+        transpileWorker.onmessage = (event: MessageEvent<{id: number; code?: string; error?: string;}>): void => {
+            const {id, code, error} = event.data;
+            const job: TranspileJob | undefined = transpileJobs.get(id);
+            transpileJobs.delete(id);
+            if(code !== undefined) {
+                job?.resolve(code);
+            } else {
+                job?.reject(new Error(error));
+            }
+        };
+        transpileWorker.onerror = (event: ErrorEvent): void => {
+            // The worker is unusable (e.g., blocked by CSP); fall back to the main thread
+            console.warn('React renderer transpilation worker failed, transpiling on the main thread:', event.message);
+            transpileWorker?.terminate();
+            transpileWorker = null;
+            transpileJobs.forEach((job: TranspileJob): void => job.reject(new Error(event.message)));
+            transpileJobs.clear();
+        };
+    } catch(_err: unknown) {
+        transpileWorker = null;
+    }
+
+    return transpileWorker;
+};
+
+// Transpiles a JSX template expression in the worker, falling back to the
+// main thread if the worker is unavailable or fails
+const transpileTemplateAsync = (templateExpression: string): Promise<string> => {
+    const pending: Promise<string> | undefined = pendingTranspilations.get(templateExpression);
+    if(pending) {
+        return pending;
+    }
+
+    const worker: Worker | null = getTranspileWorker();
+    if(!worker) {
+        return transpileTemplate(templateExpression);
+    }
+
+    const id: number = nextTranspileJobId++;
+    const promise: Promise<string> = new Promise<string>((resolve: (code: string) => void, reject: (err: unknown) => void): void => {
+        transpileJobs.set(id, {resolve: resolve, reject: reject});
+        worker.postMessage({id: id, templateExpression: templateExpression, options: BABEL_OPTIONS});
+    })
+        .then((code: string): string => {
+            storeTranspiledTemplate(templateExpression, code);
+
+            return code;
+        })
+        .catch((err: unknown): Promise<string> => {
+            if(transpileWorker === null) {
+                return transpileTemplate(templateExpression);
+            }
+
+            throw err;
+        })
+        .finally((): void => {
+            pendingTranspilations.delete(templateExpression);
+        });
+    pendingTranspilations.set(templateExpression, promise);
+
+    return promise;
+};
+
+const evaluateComponent = (code: string): ReactComponentType =>
+    (new Function('React', `return ${code}`))(React);
+
+const createErrorComponent = (err: unknown): ReactComponentType => {
+    console.error('Error creating React component from template:', err);
+
+    return ({item: _item}: {item: any}) => React.createElement('div', {}, 'Render Error');
+};
+
+// Creates a component that renders nothing (the placeholder) until the template
+// has been transpiled, then renders the real component
+const createDeferredComponent = (templateId: string, templateExpression: string): ReactComponentType => {
+    let resolved: ReactComponentType | undefined;
+    const listeners: Set<() => void> = new Set();
+
+    transpileTemplateAsync(templateExpression)
+        .then(evaluateComponent)
+        .catch(createErrorComponent)
+        .then((component: ReactComponentType): void => {
+            resolved = component;
+            // New roots use the real component directly
+            reactComponents.set(templateId, component);
+            listeners.forEach((listener: () => void): void => listener());
+            listeners.clear();
+        });
+
+    const subscribe = (listener: () => void): (() => void) => {
+        listeners.add(listener);
+
+        return (): void => {
+            listeners.delete(listener);
+        };
+    };
+    const getSnapshot = (): ReactComponentType | undefined => resolved;
+
+    return (props: any): React.ReactNode => {
+        const Component: ReactComponentType | undefined = React.useSyncExternalStore(subscribe, getSnapshot);
+
+        return (Component ? React.createElement(Component, props) : null);
+    };
+};
+
+// Create a React component factory function from the template expression
+const createReactComponent = (templateId: string, templateExpression: string, transpile: boolean): ReactComponentType => {
+    try {
+        // The template expression should be a function that returns JSX
+        // E.g., "({item, index, handleClick}) => <div onClick={handleClick}>{item.name}</div>"
+        // or, when not transpiled, uses React.createElement directly
+        // E.g., "({item, index, handleClick}) => React.createElement('div', {onClick: handleClick}, item.name)"
+        if(!transpile) {
+            return evaluateComponent(templateExpression);
+        }
+
+        const cached: string | undefined = findTranspiledTemplate(templateExpression);
+        if(cached !== undefined) {
+            return evaluateComponent(cached);
+        }
+
+        // Transpile off the main thread, rendering placeholders meanwhile
+        return createDeferredComponent(templateId, templateExpression);
+    } catch(err: unknown) {
+        return createErrorComponent(err);
+    }
+};
+
+// Returns the React component for a template, creating it once per template ID
+const getReactComponent = (templateId: string, templateExpression: string | undefined, transpile: boolean): ReactComponentType => {
+    if(templateExpression !== undefined) {
+        templateExpressions.set(templateId, templateExpression);
+    }
+
+    let component: ReactComponentType | undefined = reactComponents.get(templateId);
+    if(!component) {
+        const expression: string | undefined = templateExpressions.get(templateId);
+        if(expression === undefined) {
+            return createErrorComponent(new Error(`Unknown template: ${templateId}`));
+        }
+
+        component = createReactComponent(templateId, expression, transpile);
+        reactComponents.set(templateId, component);
+    }
+
+    return component;
+};
+
+// Attribute set on roots whose render is deferred until they are visible
+const PENDING_ATTRIBUTE = 'data-react-renderer-pending';
+
+// Roots with a deferred render that are currently in the viewport
+const visiblePendingRoots: Set<RenderRoot> = new Set();
+let pendingRenderHandle: number | undefined;
+
+const requestIdle: (callback: (deadline: IdleDeadline) => void) => number = (window.requestIdleCallback
+    ? (callback: (deadline: IdleDeadline) => void): number => window.requestIdleCallback(callback, {timeout: 100})
+    : (callback: (deadline: IdleDeadline) => void): number => window.setTimeout(() => callback({didTimeout: true, timeRemaining: () => 0}), 16));
+
+const runPendingRender = (root: RenderRoot): void => {
+    const render: (() => void) | undefined = root.__pendingRender;
+
+    visiblePendingRoots.delete(root);
+    lazyRenderObserver?.unobserve(root);
+    delete root.__pendingRender;
+    root.removeAttribute(PENDING_ATTRIBUTE);
+    root.style.removeProperty('visibility');
+
+    render?.();
+};
+
+const cancelPendingRender = (root: RenderRoot): void => {
+    if(root.__pendingRender) {
+        delete root.__pendingRender;
+        runPendingRender(root);
+    }
+};
+
+const flushPendingRenders = (deadline: IdleDeadline): void => {
+    pendingRenderHandle = undefined;
+
+    for(const root of visiblePendingRoots) {
+        // Always render at least one root, then yield when out of idle time.
+        // Rendered synchronously, as render() only schedules the work, which
+        // React would then perform for all released roots in one task.
+        flushSync((): void => {
+            runPendingRender(root);
+        });
+        if(!deadline.didTimeout && deadline.timeRemaining() < 1) {
+            break;
+        }
+    }
+
+    if(visiblePendingRoots.size > 0) {
+        pendingRenderHandle = requestIdle(flushPendingRenders);
+    }
+};
+
+const lazyRenderObserver: IntersectionObserver | undefined = (typeof IntersectionObserver !== 'undefined'
+    ? new IntersectionObserver((entries: IntersectionObserverEntry[]): void => {
+        for(const entry of entries) {
+            const root: RenderRoot = entry.target as RenderRoot;
+            if(entry.isIntersecting && root.__pendingRender) {
+                visiblePendingRoots.add(root);
+            } else {
+                // Cancel work for roots that left the viewport; it is resumed
+                // if they scroll back into view
+                visiblePendingRoots.delete(root);
+            }
+        }
+
+        if(visiblePendingRoots.size > 0 && pendingRenderHandle === undefined) {
+            pendingRenderHandle = requestIdle(flushPendingRenders);
+        }
+    })
+    : undefined);
+
+// Defers a render until the root is visible and the browser is idle. Only the
+// latest render requested for a root is kept. Roots showing another item, or
+// nothing yet, are hidden meanwhile; refreshes of the item a root already
+// shows keep the current content visible.
+const scheduleLazyRender = (root: RenderRoot, render: () => void, placeholder: boolean): void => {
+    if(!lazyRenderObserver) {
+        render();
+
+        return;
+    }
+
+    if(!root.__pendingRender) {
+        root.setAttribute(PENDING_ATTRIBUTE, '');
+        lazyRenderObserver.observe(root);
+    }
+    if(placeholder) {
+        // Hide stale content until the real render happens
+        root.style.visibility = 'hidden';
+    }
+    root.__pendingRender = render;
+};
+
+// Renders within this time of a user interaction with a root stay urgent
+const INTERACTION_WINDOW_MS = 1000;
+// Time spent on deferred renders per animation frame
+const FRAME_BUDGET_MS = 8;
+
+let lastInteraction: {target: EventTarget | undefined; time: number;} = {target: undefined, time: 0};
+
+const recordInteraction = (event: Event): void => {
+    lastInteraction = {target: event.composedPath()[0], time: performance.now()};
+};
+['pointerdown', 'keydown', 'input'].forEach((type: string): void => {
+    document.addEventListener(type, recordInteraction, {capture: true, passive: true});
+});
+
+const containsInteraction = (element: HTMLElement): boolean =>
+    element.contains(document.activeElement)
+    || (lastInteraction.target instanceof Node
+        && element.contains(lastInteraction.target)
+        && performance.now() - lastInteraction.time < INTERACTION_WINDOW_MS);
+
+// Row hosts are not in the document; the user interacts with their cells
+const isInteracting = (root: RenderRoot): boolean =>
+    (root.__cells
+        ? Array.from(root.__cells.values()).some(containsInteraction)
+        : containsInteraction(root));
+
+// Renders waiting for a frame with budget left, by root; only the latest is kept
+const deferredRenders: Map<RenderRoot, () => void> = new Map();
+let deferredRenderHandle: number | undefined;
+
+const flushDeferredRenders = (): void => {
+    deferredRenderHandle = undefined;
+
+    const start: number = performance.now();
+    for(const [root, render] of deferredRenders) {
+        deferredRenders.delete(root);
+        render();
+        if(performance.now() - start >= FRAME_BUDGET_MS) {
+            break;
+        }
+    }
+
+    if(deferredRenders.size > 0) {
+        deferredRenderHandle = requestAnimationFrame(flushDeferredRenders);
+    }
+};
+
+// Commits a render with the priority configured for the renderer. Roots the
+// user is interacting with are always rendered urgently.
+const commitRender = (root: RenderRoot, reactRoot: Root, element: React.ReactNode, urgent: boolean, options: RendererOptions): void => {
+    // A newer render supersedes a deferred one
+    deferredRenders.delete(root);
+
+    if(urgent || !options.priority || options.priority === 'urgent' || isInteracting(root)) {
+        reactRoot.render(element);
+    } else if(options.priority === 'transition') {
+        React.startTransition((): void => {
+            reactRoot.render(element);
+        });
+    } else {
+        // Rendered synchronously, as render() only schedules the work, which
+        // React would then perform for all deferred roots in one task
+        deferredRenders.set(root, (): void => {
+            if(root.__reactRoot === reactRoot) {
+                flushSync((): void => {
+                    reactRoot.render(element);
+                });
+            }
+        });
+        if(deferredRenderHandle === undefined) {
+            deferredRenderHandle = requestAnimationFrame(flushDeferredRenders);
+        }
+    }
+};
+
+// A row renderer renders one React tree per item into a host element outside
+// the document, and projects it into the cells of its cell renderers with
+// portals. Templates place content with the Cell component; outside a row,
+// e.g., in item details, Cell renders its children in place.
+
+// Cells of the row being rendered, by slot
+const RowCellsContext = React.createContext<Map<string, HTMLElement> | null>(null);
+
+const Cell = ({name, children}: {name: string; children?: React.ReactNode;}): React.ReactNode => {
+    const cells: Map<string, HTMLElement> | null = React.useContext(RowCellsContext);
+    if(!cells) {
+        return (children ?? null);
+    }
+
+    const cell: HTMLElement | undefined = cells.get(name);
+
+    return (cell ? createPortal(children, cell) : null);
+};
+
+// Row renders, by host; coalesced so that a row whose cells are rendered in
+// the same task is rendered once
+const pendingRowRenders: Map<RenderRoot, () => void> = new Map();
+
+const flushRowRenders = (): void => {
+    const renders: (() => void)[] = Array.from(pendingRowRenders.values());
+    pendingRowRenders.clear();
+    renders.forEach((render: () => void): void => render());
+};
+
+const scheduleRowRender = (host: RenderRoot, render: () => void): void => {
+    if(pendingRowRenders.size === 0) {
+        queueMicrotask(flushRowRenders);
+    }
+    pendingRowRenders.set(host, render);
+};
+
+// Sweep dead references from the root registry after this many new roots
+const LIVE_ROOTS_SWEEP_INTERVAL = 256;
+
+// Live React roots by renderer ID. Roots are held weakly so that roots of
+// components dropped from the DOM without unregistering their renderer (e.g.,
+// when navigating away from a view) can still be garbage collected.
+const liveRoots: Map<string, Set<WeakRef<RenderRoot>>> = new Map();
+let rootsTrackedSinceSweep: number = 0;
+
+// Renderers by ID, held weakly like their roots
+const renderers: Map<string, WeakRef<Renderer>> = new Map();
+
+const sweepLiveRoots = (): void => {
+    renderers.forEach((ref: WeakRef<Renderer>, rendererId: string): void => {
+        if(!ref.deref()) {
+            renderers.delete(rendererId);
+        }
+    });
+
+    liveRoots.forEach((roots: Set<WeakRef<RenderRoot>>, rendererId: string): void => {
+        roots.forEach((ref: WeakRef<RenderRoot>): void => {
+            if(!ref.deref()) {
+                roots.delete(ref);
+            }
+        });
+        if(roots.size === 0) {
+            liveRoots.delete(rendererId);
+        }
+    });
+};
+
+const trackRoot = (rendererId: string, root: RenderRoot): void => {
+    let roots: Set<WeakRef<RenderRoot>> | undefined = liveRoots.get(rendererId);
+    if(!roots) {
+        roots = new Set();
+        liveRoots.set(rendererId, roots);
+    }
+
+    root.__rootRef = new WeakRef(root);
+    roots.add(root.__rootRef);
+
+    if(++rootsTrackedSinceSweep >= LIVE_ROOTS_SWEEP_INTERVAL) {
+        rootsTrackedSinceSweep = 0;
+        sweepLiveRoots();
+    }
+};
+
+// Re-renders live roots of a renderer with their latest model
+const rerenderLiveRoots = (rendererId: string, filter: (root: RenderRoot) => boolean = (): boolean => true): void => {
+    liveRoots.get(rendererId)?.forEach((ref: WeakRef<RenderRoot>): void => {
+        const root: RenderRoot | undefined = ref.deref();
+        if(root?.__reactRenderer?.__rendererId === rendererId && !root.__pendingRender && filter(root)) {
+            root.__rerender?.();
+        }
+    });
+};
+
+// Unmounts the React root of an element and detaches it from its renderer
+const releaseRoot = (root: RenderRoot): void => {
+    cancelPendingRender(root);
+
+    const rendererId: string | undefined = root.__reactRenderer?.__rendererId;
+    if(rendererId !== undefined && root.__rootRef) {
+        liveRoots.get(rendererId)?.delete(root.__rootRef);
+    }
+    delete root.__rootRef;
+    delete root.__rerender;
+    delete root.__unresolved;
+    delete root.__itemKey;
+    delete root.__cells;
+    delete root.__cellsChanged;
+    delete root.__rowKey;
+    delete root.__rowModel;
+    delete root.__rowHost;
+    deferredRenders.delete(root);
+    pendingRowRenders.delete(root);
+
+    if(root.__reactRoot) {
+        root.__reactRoot.unmount();
+        delete root.__reactRoot;
+    }
+    root.innerHTML = '';
+    delete root.__reactRenderer;
+};
 
 const _window = window as any;
 _window.Vaadin = _window.Vaadin || {};
 
+// Rows (options.row) are not assigned to the component
 _window.Vaadin.setReactRenderer = (
     component: Component,
-    rendererName: string,
-    templateExpression: string,
+    rendererName: string | undefined,
+    rendererId: string,
+    templateId: string,
+    templateExpression: string | undefined,
     transpile: boolean,
-    returnChannel: (name: string, itemKey: string, args: any[]) => void,
+    returnChannel: ReturnChannel,
     clientCallables: string[],
     propertyNamespace: string,
-    appId: string
+    appId: string,
+    sharedProperties: Record<string, any> = {},
+    dictionaries: Record<string, any[]> = {},
+    options: RendererOptions = {},
+    dictionaryKeyPrefix: string = `d${rendererId}`
 ): void => {
+    let shared: Record<string, any> = sharedProperties;
+
     const callablesCreator = (itemKey: string): Record<string, ((...args: any[]) => void)> =>
         clientCallables.reduce(
             (acc: Record<string, ((...args: any[]) => void)>, clientCallable: string): Record<string, ((...args: any[]) => void)> => ({
@@ -41,56 +742,34 @@ _window.Vaadin.setReactRenderer = (
             ({} as Record<string, ((...args: any[]) => void)>)
         );
 
-    // Create a React component factory function from the template expression
-    const createReactComponent = (templateExpression: string, transpile: boolean): ((item: any, index: number) => React.ReactNode) => {
-        try {
-            if(transpile) {
-                // The template expression should be a function that returns JSX
-                // E.g., "({item, index, handleClick}) => <div onClick={handleClick}>{item.name}</div>"
-
-                // Transform JSX to React.createElement calls
-                const result = Babel.transform(templateExpression, {
-                    presets: [['react', {runtime: 'classic'}]],
-                    plugins: [],
-                    filename: 'template.jsx'
-                });
-
-                if(!result || !result.code) {
-                    throw (new Error('Babel transformation returned empty result'));
-                }
-
-                // Create the component function
-                return (new Function('React', `return ${result.code}`))(React);
-            } else {
-                // The template expression should be a function that returns JSX
-                // E.g., "({item, index, handleClick}) => React.createElement('div', {onClick: handleClick}, item.name)"
-
-                return (new Function('React', `return ${templateExpression}`))(React);
-            }
-        } catch(err: unknown) {
-            console.error('Error creating React component from template:', err);
-
-            return ({item: _item}: {item: any}) => React.createElement('div', {}, 'Render Error');
-        }
-    };
-
-    const ReactComponent = createReactComponent(templateExpression, transpile);
+    const ReactComponent = getReactComponent(templateId, templateExpression, transpile);
 
     const renderFunction = (root: RenderRoot, model: ItemModel, itemKey: string): void => {
         const {item, index} = model;
         const callables: Record<string, ((...args: any[]) => void)> = callablesCreator(itemKey);
 
+        // Only re-renders of the same item (data refreshes) may be deferred;
+        // new roots, roots reused for another item (e.g., when scrolling) and
+        // rows projected into other cells are rendered urgently
+        const urgent: boolean = (!root.__reactRoot || root.__itemKey !== itemKey || !!root.__cellsChanged);
+        root.__itemKey = itemKey;
+        root.__cellsChanged = false;
+
         // Create a React root if it doesn't exist
         if(!root.__reactRoot) {
             root.__reactRoot = createRoot(root);
+            trackRoot(rendererId, root);
         }
 
         // Render the React component
-        const element = React.createElement(
+        let element: React.ReactNode = React.createElement(
             ReactComponent,
-            {item: item, index: index, appId: appId, itemKey: itemKey, model: model, ...callables}
+            {item: item, index: index, shared: shared, appId: appId, itemKey: itemKey, model: model, Cell: Cell, ...callables}
         );
-        root.__reactRoot.render(element)
+        if(root.__cells) {
+            element = React.createElement(RowCellsContext.Provider, {value: root.__cells}, element);
+        }
+        commitRender(root, root.__reactRoot, element, urgent, options);
     };
 
     const renderer: Renderer = (root: RenderRoot, _: HTMLElement, model: ItemModel): void => {
@@ -99,45 +778,310 @@ _window.Vaadin.setReactRenderer = (
         // Clean up the root element if it was used by a different renderer
         if(root.__reactRenderer !== renderer) {
             // Unmount the previous React root if it exists
-            if(root.__reactRoot) {
-                root.__reactRoot.unmount();
-                delete root.__reactRoot;
-            }
-            root.innerHTML = '';
+            releaseRoot(root);
             root.__reactRenderer = renderer;
         }
 
-        // Map item properties with namespace prefix removed
-        const mappedItem: Record<string, any> = {};
-        for(const key in item) {
-            if(!key.startsWith(propertyNamespace)) {
-                continue;
+        const render = (): void => {
+            // Map item properties with namespace prefix removed, resolving
+            // dictionary codes
+            const mappedItem: Record<string, any> = {};
+            let unresolved: boolean = false;
+            for(const key in item) {
+                if(key.startsWith(propertyNamespace)) {
+                    mappedItem[key.replace(propertyNamespace, '')] = item[key];
+                }
             }
-            mappedItem[key.replace(propertyNamespace, '')] = item[key];
+            // Codes are kept under keys of this renderer, as renderers sharing
+            // the namespace in one component have their own dictionaries
+            for(const property in dictionaries) {
+                const code: number | undefined = item[dictionaryKeyPrefix + property];
+                if(code === undefined) {
+                    continue;
+                }
+
+                // The dictionary delta may arrive after the item; the root is
+                // re-rendered once it does
+                unresolved ||= !(code in dictionaries[property]);
+                mappedItem[property] = dictionaries[property][code];
+            }
+            root.__unresolved = unresolved;
+
+            renderFunction(root, {...model, item: mappedItem}, item.key);
+        };
+
+        root.__rerender = render;
+        // Row hosts are never visible themselves
+        if(options.lazy && !root.__cells) {
+            scheduleLazyRender(root, (): void => {
+                // Skip if the root has been taken over since scheduling
+                if(root.__reactRenderer === renderer) {
+                    render();
+                }
+            }, (!root.__reactRoot || root.__itemKey !== item?.key));
+        } else {
+            render();
         }
+    };
 
-        renderFunction(root, {...model, item: mappedItem}, item.key);
+    renderer.__rendererId = rendererId;
+    renderer.__setSharedProperties = (sharedProperties: Record<string, any>): void => {
+        shared = sharedProperties;
+        rerenderLiveRoots(rendererId);
+    };
+    renderer.__updateDictionaries = (deltas: Record<string, [number, any[]]>): void => {
+        Object.entries(deltas).forEach(([property, [firstCode, values]]: [string, [number, any[]]]): void => {
+            const dictionary: any[] = (dictionaries[property] ??= []);
+            values.forEach((value: any, index: number): void => {
+                dictionary[firstCode + index] = value;
+            });
+        });
+        rerenderLiveRoots(rendererId, (root: RenderRoot): boolean => !!root.__unresolved);
     };
 
-    renderer.__rendererId = propertyNamespace;
-    component[rendererName] = renderer;
+    if(options.row) {
+        // Row hosts by item key
+        const rowHosts: Map<string, RenderRoot> = new Map();
+
+        const renderRow = (host: RenderRoot): void => {
+            scheduleRowRender(host, (): void => {
+                if(host.__rowKey !== undefined && rowHosts.get(host.__rowKey) === host) {
+                    renderer(host, host, host.__rowModel!);
+                }
+            });
+        };
+
+        const releaseRow = (host: RenderRoot): void => {
+            rowHosts.delete(host.__rowKey!);
+            releaseRoot(host);
+        };
+
+        const detachCell = (host: RenderRoot, slot: string, root: RenderRoot): void => {
+            if(host.__cells?.get(slot) !== root) {
+                return;
+            }
+
+            // Replaced rather than mutated, so that Cell sees the change
+            const cells: Map<string, HTMLElement> = new Map(host.__cells);
+            cells.delete(slot);
+            if(cells.size === 0) {
+                releaseRow(host);
+                return;
+            }
+
+            host.__cells = cells;
+            host.__cellsChanged = true;
+            renderRow(host);
+        };
+
+        renderer.__renderCell = (slot: string, root: RenderRoot, model: ItemModel): void => {
+            const itemKey: string | undefined = model.item?.key;
+            let host: RenderRoot | undefined = (itemKey !== undefined ? rowHosts.get(itemKey) : undefined);
+
+            // The cell may have been reused for another item
+            const previous: RenderRoot | undefined = root.__rowHost;
+            if(previous && previous !== host) {
+                detachCell(previous, slot, root);
+                delete root.__rowHost;
+            }
+
+            if(itemKey === undefined) {
+                return;
+            }
+
+            if(!host) {
+                host = document.createElement('div') as RenderRoot;
+                host.__reactRenderer = renderer;
+                host.__rowKey = itemKey;
+                host.__cells = new Map();
+                rowHosts.set(itemKey, host);
+            }
+            if(host.__cells!.get(slot) !== root) {
+                host.__cells = new Map(host.__cells).set(slot, root);
+                host.__cellsChanged = true;
+            }
+            root.__rowHost = host;
+            host.__rowModel = model;
+
+            renderRow(host);
+        };
+        renderer.__removeCell = (slot: string): void => {
+            Array.from(rowHosts.values()).forEach((host: RenderRoot): void => {
+                const root: RenderRoot | undefined = host.__cells?.get(slot);
+                if(root) {
+                    detachCell(host, slot, root);
+                    delete root.__rowHost;
+                }
+            });
+        };
+        renderer.__release = (): void => {
+            Array.from(rowHosts.values()).forEach(releaseRow);
+        };
+
+        // A row set again replaces the previous one along with its cells
+        renderers.get(rendererId)?.deref()?.__release?.();
+        renderers.set(rendererId, new WeakRef(renderer));
+
+        return;
+    }
+
+    renderers.set(rendererId, new WeakRef(renderer));
+    component[rendererName!] = renderer;
 };
 
-_window.Vaadin.unsetReactRenderer = (component: Component, rendererName: string, rendererId: string): void => {
-    const renderer: Renderer | undefined = component[rendererName];
-    if(renderer?.__rendererId !== rendererId) {
+// Sets a renderer that shows the given slot of the rows of a row renderer.
+// Cells hold on to their row renderer, which is not assigned to a component.
+_window.Vaadin.setReactCellRenderer = (
+    component: Component,
+    rendererName: string,
+    rendererId: string,
+    rowRendererId: string,
+    slot: string
+): void => {
+    const row: Renderer | undefined = renderers.get(rowRendererId)?.deref();
+    if(!row?.__renderCell) {
+        console.warn(`React row renderer ${rowRendererId} not found`);
         return;
     }
 
-    // Clean up React root before removing renderer
-    const elements: NodeListOf<Element> = component.querySelectorAll(`[data-renderer-id="${rendererId}"]`);
-    elements.forEach((element: Element): void => {
-        if(!('__reactRoot' in element)) {
+    const renderer: Renderer = (root: RenderRoot, _: HTMLElement, model: ItemModel): void => {
+        // Clean up the root element if it was used by a different renderer
+        if(root.__reactRenderer !== renderer) {
+            releaseRoot(root);
+            root.__reactRenderer = renderer;
+        }
+
+        row.__renderCell!(slot, root, model);
+    };
+
+    renderer.__rendererId = rendererId;
+    renderer.__release = (): void => row.__removeCell?.(slot);
+    renderers.set(rendererId, new WeakRef(renderer));
+    component[rendererName] = renderer;
+};
+
+// The component is null if it has been detached from the DOM
+_window.Vaadin.unsetReactRenderer = (component: Component | null, rendererName: string | undefined, rendererId: string): void => {
+    // Rows release their hosts, cells remove themselves from their rows
+    renderers.get(rendererId)?.deref()?.__release?.();
+
+    // Unmount and release every root created by the renderer
+    liveRoots.get(rendererId)?.forEach((ref: WeakRef<RenderRoot>): void => {
+        const root: RenderRoot | undefined = ref.deref();
+        if(root?.__reactRenderer?.__rendererId === rendererId) {
+            releaseRoot(root);
+        }
+    });
+    liveRoots.delete(rendererId);
+    renderers.delete(rendererId);
+
+    if(component && rendererName !== undefined && component[rendererName]?.__rendererId === rendererId) {
+        component[rendererName] = undefined;
+    }
+};
+
+// Debugging aid: number of mounted React roots, for one renderer or in total
+_window.Vaadin.getReactRendererLiveRootCount = (rendererId?: string): number => {
+    sweepLiveRoots();
+
+    if(rendererId !== undefined) {
+        return (liveRoots.get(rendererId)?.size ?? 0);
+    }
+
+    let count: number = 0;
+    liveRoots.forEach((roots: Set<WeakRef<RenderRoot>>): void => {
+        count += roots.size;
+    });
+
+    return count;
+};
+
+// Sets the renderers registered on the server during one round trip. Components
+// are null if they were detached before the call. Rows are set first, as cells
+// look up their row when they are set.
+_window.Vaadin.setReactRenderers = (
+    renderers: (RendererRegistration | CellRendererRegistration)[],
+    components: (Component | null)[],
+    returnChannels: ReturnChannel[]
+): void => {
+    const isCell = (renderer: RendererRegistration | CellRendererRegistration): renderer is CellRendererRegistration =>
+        ('rowRendererId' in renderer);
+    const isRow = (renderer: RendererRegistration | CellRendererRegistration): boolean =>
+        (!isCell(renderer) && !!renderer.options?.row);
+
+    const set = (renderer: RendererRegistration | CellRendererRegistration, index: number): void => {
+        const component: Component | null = components[index];
+        if(!component) {
             return;
         }
-        (element.__reactRoot as any).unmount();
-        delete element.__reactRoot;
+
+        if(isCell(renderer)) {
+            _window.Vaadin.setReactCellRenderer(
+                component,
+                renderer.rendererName,
+                renderer.rendererId,
+                renderer.rowRendererId,
+                renderer.slot
+            );
+
+            return;
+        }
+
+        _window.Vaadin.setReactRenderer(
+            component,
+            renderer.rendererName,
+            renderer.rendererId,
+            renderer.templateId,
+            renderer.templateExpression,
+            renderer.transpile,
+            returnChannels[index],
+            renderer.clientCallables,
+            renderer.propertyNamespace,
+            renderer.appId,
+            renderer.sharedProperties,
+            renderer.dictionaries,
+            renderer.options,
+            renderer.dictionaryKeyPrefix
+        );
+    };
+
+    // Expressions may come with any renderer of the batch using the template
+    renderers.forEach((renderer: RendererRegistration | CellRendererRegistration): void => {
+        if(!isCell(renderer) && renderer.templateExpression !== undefined) {
+            templateExpressions.set(renderer.templateId, renderer.templateExpression);
+        }
+    });
+    renderers.forEach((renderer: RendererRegistration | CellRendererRegistration, index: number): void => {
+        if(isRow(renderer)) {
+            set(renderer, index);
+        }
+    });
+    renderers.forEach((renderer: RendererRegistration | CellRendererRegistration, index: number): void => {
+        if(!isRow(renderer)) {
+            set(renderer, index);
+        }
     });
+};
+
+_window.Vaadin.unsetReactRenderers = (
+    renderers: {rendererName?: string; rendererId: string;}[],
+    components: (Component | null)[]
+): void => {
+    renderers.forEach((renderer: {rendererName?: string; rendererId: string;}, index: number): void => {
+        _window.Vaadin.unsetReactRenderer(components[index], renderer.rendererName, renderer.rendererId);
+    });
+};
 
-    component[rendererName] = undefined;
+// Updates the shared properties of renderers, by renderer ID
+_window.Vaadin.updateReactRendererSharedProperties = (sharedProperties: Record<string, Record<string, any>>): void => {
+    Object.entries(sharedProperties).forEach(([rendererId, values]: [string, Record<string, any>]): void => {
+        renderers.get(rendererId)?.deref()?.__setSharedProperties?.(values);
+    });
+};
+
+// Adds newly encoded values to the dictionaries of renderers, by renderer ID
+_window.Vaadin.updateReactRendererDictionaries = (deltas: Record<string, Record<string, [number, any[]]>>): void => {
+    Object.entries(deltas).forEach(([rendererId, rendererDeltas]: [string, Record<string, [number, any[]]>]): void => {
+        renderers.get(rendererId)?.deref()?.__updateDictionaries?.(rendererDeltas);
+    });
 };
@@ -0,0 +1,77 @@
+package com.oliveryasuna.vaadin.reactrenderer;
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PropertyDictionaryTest {
+
+    // Methods
+    //--------------------------------------------------
+
+    @Test
+    void encodeAssignsCodesInOrderOfFirstUse() {
+        final PropertyDictionary dictionary = new PropertyDictionary();
+
+        assertEquals(0, dictionary.encode(Json.create("Active")));
+        assertEquals(1, dictionary.encode(Json.create("Inactive")));
+        assertEquals(0, dictionary.encode(Json.create("Active")));
+        assertEquals(2, dictionary.size());
+    }
+
+    @Test
+    void encodeDistinguishesValuesByJson() {
+        final PropertyDictionary dictionary = new PropertyDictionary();
+
+        assertNotEquals(dictionary.encode(Json.create("1")), dictionary.encode(Json.create(1)));
+    }
+
+    @Test
+    void deltaContainsOnlyUnsentValues() {
+        final PropertyDictionary dictionary = new PropertyDictionary();
+        dictionary.encode(Json.create("a"));
+        dictionary.encode(Json.create("b"));
+
+        final JsonArray first = dictionary.drainDelta();
+        assertEquals(2, first.length());
+        assertEquals("a", first.getString(0));
+        assertEquals("b", first.getString(1));
+        assertEquals(2, dictionary.sentSize());
+
+        dictionary.encode(Json.create("a"));
+        assertEquals(0, dictionary.drainDelta().length());
+
+        dictionary.encode(Json.create("c"));
+        final JsonArray second = dictionary.drainDelta();
+        assertEquals(1, second.length());
+        assertEquals("c", second.getString(0));
+        assertEquals(3, dictionary.sentSize());
+    }
+
+    @Test
+    void snapshotContainsAllValuesAndMarksThemSent() {
+        final PropertyDictionary dictionary = new PropertyDictionary();
+        dictionary.encode(Json.create("a"));
+        dictionary.drainDelta();
+        dictionary.encode(Json.create("b"));
+
+        final JsonArray snapshot = dictionary.drainSnapshot();
+        assertEquals(2, snapshot.length());
+        assertEquals("a", snapshot.getString(0));
+        assertEquals("b", snapshot.getString(1));
+        assertEquals(2, dictionary.sentSize());
+        assertEquals(0, dictionary.drainDelta().length());
+    }
+
+    @Test
+    void emptyDictionaryHasEmptySnapshotAndDelta() {
+        final PropertyDictionary dictionary = new PropertyDictionary();
+
+        assertEquals(0, dictionary.drainSnapshot().length());
+        assertEquals(0, dictionary.drainDelta().length());
+        assertEquals(0, dictionary.sentSize());
+    }
+
+}
@@ -0,0 +1,133 @@
+package com.oliveryasuna.vaadin.reactrenderer;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.Tag;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.internal.PendingJavaScriptInvocation;
+import com.vaadin.flow.data.provider.KeyMapper;
+import com.vaadin.flow.dom.Element;
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReactRendererBatchTest {
+
+    // Static fields
+    //--------------------------------------------------
+
+    private static final String TEMPLATE = "({item}) => <span>{item.name}</span>";
+
+    // Fields
+    //--------------------------------------------------
+
+    private UI ui;
+
+    // Static methods
+    //--------------------------------------------------
+
+    // The renderers passed to setReactRenderers by an invocation, if any
+    private static Optional<JsonArray> findSetRenderers(final PendingJavaScriptInvocation invocation) {
+        if(!invocation.getInvocation().getExpression().contains("Vaadin.setReactRenderers(")) {
+            return Optional.empty();
+        }
+
+        return invocation.getInvocation().getParameters().stream()
+                .filter(JsonArray.class::isInstance)
+                .map(JsonArray.class::cast)
+                .findFirst();
+    }
+
+    private static Optional<JsonArray> findSetRenderers(final List<PendingJavaScriptInvocation> invocations, final Component owner) {
+        return invocations.stream()
+                .filter(invocation -> invocation.getOwner() == owner.getElement().getNode())
+                .map(ReactRendererBatchTest::findSetRenderers)
+                .flatMap(Optional::stream)
+                .findFirst();
+    }
+
+    // Methods
+    //--------------------------------------------------
+
+    @BeforeEach
+    void createUi() {
+        ui = new UI();
+    }
+
+    private TestGrid addGrid() {
+        final TestGrid grid = new TestGrid();
+        final Element column = new Element("test-grid-column");
+        grid.getElement().appendChild(column);
+        ui.add(grid);
+
+        ReactRenderer.<String>jsx(TEMPLATE)
+                .withProperty("name", String::toUpperCase)
+                .render(column, new KeyMapper<>(), "renderer");
+
+        return grid;
+    }
+
+    private List<PendingJavaScriptInvocation> respond() {
+        ui.getInternals().getStateTree().runExecutionsBeforeClientResponse();
+
+        return ui.getInternals().dumpPendingJavaScriptInvocations();
+    }
+
+    @Test
+    void setsAreSentOncePerOwner() {
+        final TestGrid grid = addGrid();
+        final Element secondColumn = new Element("test-grid-column");
+        grid.getElement().appendChild(secondColumn);
+        ReactRenderer.<String>jsx(TEMPLATE).render(secondColumn, new KeyMapper<>(), "renderer");
+
+        final List<PendingJavaScriptInvocation> invocations = respond();
+
+        assertEquals(1, invocations.stream().filter(invocation -> findSetRenderers(invocation).isPresent()).count());
+        assertEquals(2, findSetRenderers(invocations, grid).orElseThrow().length());
+    }
+
+    @Test
+    void templateExpressionIsOnlySentOnce() {
+        final TestGrid first = addGrid();
+        final TestGrid second = addGrid();
+
+        final List<PendingJavaScriptInvocation> invocations = respond();
+
+        assertTrue(findSetRenderers(invocations, first).orElseThrow().getObject(0).hasKey("templateExpression"));
+        assertFalse(findSetRenderers(invocations, second).orElseThrow().getObject(0).hasKey("templateExpression"));
+    }
+
+    @Test
+    void hiddenGridReceivesRendererWhenShown() {
+        final TestGrid hidden = addGrid();
+        hidden.setVisible(false);
+        final TestGrid visible = addGrid();
+
+        final List<PendingJavaScriptInvocation> invocations = respond();
+
+        // The hidden grid's registration is held back, so the visible grid's
+        // must carry the template expression
+        assertTrue(findSetRenderers(invocations, hidden).isEmpty());
+        assertTrue(findSetRenderers(invocations, visible).orElseThrow().getObject(0).hasKey("templateExpression"));
+
+        hidden.setVisible(true);
+
+        final JsonObject renderer = findSetRenderers(respond(), hidden).orElseThrow().getObject(0);
+        assertTrue(renderer.hasKey("templateExpression"));
+        assertEquals(TEMPLATE, renderer.getString("templateExpression"));
+    }
+
+    // Nested
+    //--------------------------------------------------
+
+    @Tag("test-grid")
+    private static final class TestGrid extends Component {
+
+    }
+
+}
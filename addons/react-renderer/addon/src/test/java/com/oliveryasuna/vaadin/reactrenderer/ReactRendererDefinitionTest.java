@@ -0,0 +1,162 @@
+package com.oliveryasuna.vaadin.reactrenderer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReactRendererDefinitionTest {
+
+    // Static fields
+    //--------------------------------------------------
+
+    private static final String TEMPLATE = "({item}) => <span>{item.length}</span>";
+
+    // Fields
+    //--------------------------------------------------
+
+    // Unique per test, so registrations don't leak into other tests
+    private final String id = "test-" + UUID.randomUUID();
+
+    // Static methods
+    //--------------------------------------------------
+
+    private static byte[] serialize(final Object object) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try(final ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(object);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T deserialize(final byte[] bytes) throws IOException, ClassNotFoundException {
+        try(final ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return (T)in.readObject();
+        }
+    }
+
+    private static ReactRendererDefinition.Builder<String> builder() {
+        return ReactRendererDefinition.<String>jsx(TEMPLATE)
+                .withProperty("length", String::length);
+    }
+
+    // Methods
+    //--------------------------------------------------
+
+    @AfterEach
+    void unregister() {
+        ReactRendererDefinitionRegistry.unregister(id);
+    }
+
+    @Test
+    void registeredDefinitionDeserializesToRegisteredInstance() throws Exception {
+        final ReactRendererDefinition<String> definition = ReactRendererDefinitionRegistry.register(builder().withId(id).build());
+
+        final ReactRendererDefinition<String> copy = deserialize(serialize(definition));
+
+        assertSame(definition, copy);
+    }
+
+    @Test
+    void registeredDefinitionIsSerializedAsReference() throws Exception {
+        final ReactRendererDefinition<String> definition = builder().withId(id).build();
+        final int size = serialize(definition).length;
+
+        ReactRendererDefinitionRegistry.register(definition);
+
+        assertTrue(serialize(definition).length < size);
+    }
+
+    @Test
+    void registeredDefinitionFailsToDeserializeOnceUnregistered() throws Exception {
+        final byte[] bytes = serialize(ReactRendererDefinitionRegistry.register(builder().withId(id).build()));
+
+        ReactRendererDefinitionRegistry.unregister(id);
+
+        assertThrows(InvalidObjectException.class, () -> deserialize(bytes));
+    }
+
+    @Test
+    void unregisteredDefinitionDeserializesByValue() throws Exception {
+        final ReactRendererDefinition<String> definition = builder().withId(id).build();
+
+        final ReactRendererDefinition<String> copy = deserialize(serialize(definition));
+
+        assertNotSame(definition, copy);
+        assertEquals(definition.getId(), copy.getId());
+        assertEquals(definition.getTemplate(), copy.getTemplate());
+        assertEquals(definition.getPropertyNamespace(), copy.getPropertyNamespace());
+        assertEquals(definition.getValueProviders().keySet(), copy.getValueProviders().keySet());
+        assertEquals(4, copy.getValueProviders().get("length").apply("test"));
+    }
+
+    @Test
+    void copyOfRegisteredDefinitionDeserializesByValue() throws Exception {
+        final ReactRendererDefinition<String> definition = ReactRendererDefinitionRegistry.register(builder().withId(id).build());
+        final ReactRendererDefinition<String> modified = definition.toBuilder()
+                .withProperty("upperCase", String::toUpperCase)
+                .build();
+
+        final ReactRendererDefinition<String> copy = deserialize(serialize(modified));
+
+        // Same ID as the registered definition, but must not resolve to it
+        assertNotSame(definition, copy);
+        assertEquals(id, copy.getId());
+        assertTrue(copy.getValueProviders().containsKey("upperCase"));
+    }
+
+    @Test
+    void isRegisteredChecksIdentity() {
+        final ReactRendererDefinition<String> definition = builder().withId(id).build();
+        assertFalse(ReactRendererDefinitionRegistry.isRegistered(definition));
+
+        ReactRendererDefinitionRegistry.register(definition);
+
+        assertTrue(ReactRendererDefinitionRegistry.isRegistered(definition));
+        assertFalse(ReactRendererDefinitionRegistry.isRegistered(definition.toBuilder().build()));
+        assertFalse(ReactRendererDefinitionRegistry.isRegistered(builder().withId(id).build()));
+        assertFalse(ReactRendererDefinitionRegistry.isRegistered(builder().build()));
+    }
+
+    @Test
+    void propertyNamespaceIsDerivedFromId() {
+        final ReactRendererDefinition<String> definition = builder().withId(id).build();
+
+        assertEquals(definition.getPropertyNamespace(), builder().withId(id).build().getPropertyNamespace());
+        assertNotEquals(definition.getPropertyNamespace(), builder().withId(id + "-other").build().getPropertyNamespace());
+    }
+
+    @Test
+    void propertyNamespaceIsRandomWithoutId() {
+        assertNotEquals(builder().build().getPropertyNamespace(), builder().build().getPropertyNamespace());
+    }
+
+    @Test
+    void toBuilderKeepsPropertyNamespace() {
+        final ReactRendererDefinition<String> definition = builder().build();
+
+        assertEquals(definition.getPropertyNamespace(), definition.toBuilder().build().getPropertyNamespace());
+    }
+
+    @Test
+    void forkGetsOwnPropertyNamespace() {
+        final ReactRendererDefinition<String> definition = ReactRendererDefinitionRegistry.register(builder().withId(id).build());
+
+        final ReactRendererDefinition<String> fork = definition.fork().build();
+
+        assertNull(fork.getId());
+        assertNotEquals(definition.getPropertyNamespace(), fork.getPropertyNamespace());
+        assertFalse(ReactRendererDefinitionRegistry.isRegistered(fork));
+    }
+
+}
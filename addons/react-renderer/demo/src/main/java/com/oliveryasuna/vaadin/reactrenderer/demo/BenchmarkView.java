@@ -0,0 +1,123 @@
+package com.oliveryasuna.vaadin.reactrenderer.demo;
+
+import com.oliveryasuna.vaadin.reactrenderer.PropertyEncoding;
+import com.oliveryasuna.vaadin.reactrenderer.ReactRenderer;
+import com.oliveryasuna.vaadin.reactrenderer.ReactRendererDefinition;
+import com.oliveryasuna.vaadin.reactrenderer.ReactRowRenderer;
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.router.BeforeEnterEvent;
+import com.vaadin.flow.router.BeforeEnterObserver;
+import com.vaadin.flow.router.QueryParameters;
+import com.vaadin.flow.router.Route;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * A grid of synthetic rows for load testing.
+ * <p>
+ * Query parameters:
+ * <ul>
+ *   <li>{@code rows} - number of rows, {@code 10000} by default</li>
+ *   <li>{@code columns} - number of columns, {@code 10} by default</li>
+ *   <li>
+ *     {@code mode} - {@code column} for a {@link ReactRenderer} per column
+ *     (default), or {@code row} for a single {@link ReactRowRenderer}
+ *   </li>
+ * </ul>
+ * Items are generated on demand, so the per-session memory is that of the
+ * grid and its renderers.
+ * The {@code select} function of the first column refreshes the clicked
+ * item.
+ */
+@Route("benchmark")
+public final class BenchmarkView extends VerticalLayout implements BeforeEnterObserver {
+
+    private static final int DEFAULT_ROWS = 10_000;
+    private static final int DEFAULT_COLUMNS = 10;
+
+    private static final List<String> STATUSES = List.of("Active", "Inactive", "Pending", "Suspended");
+
+    private final Grid<BenchmarkItem> grid;
+
+    public BenchmarkView() {
+        grid = new Grid<>();
+        grid.setSizeFull();
+
+        add(grid);
+        setSizeFull();
+    }
+
+    @Override
+    public void beforeEnter(final BeforeEnterEvent event) {
+        final QueryParameters parameters = event.getLocation().getQueryParameters();
+        final int rows = parameters.getSingleParameter("rows").map(Integer::parseInt).orElse(DEFAULT_ROWS);
+        final int columns = parameters.getSingleParameter("columns").map(Integer::parseInt).orElse(DEFAULT_COLUMNS);
+        final boolean rowMode = parameters.getSingleParameter("mode").map("row"::equals).orElse(false);
+
+        grid.removeAllColumns();
+        if(rowMode) {
+            addRowColumns(columns);
+        } else {
+            addColumns(columns);
+        }
+
+        grid.setItems(
+                query -> IntStream.range(query.getOffset(), Math.min(query.getOffset() + query.getLimit(), rows)).mapToObj(BenchmarkItem::new),
+                query -> rows
+        );
+    }
+
+    private void addColumns(final int columns) {
+        for(int column = 0; column < columns; column++) {
+            final int index = column;
+            final ReactRenderer<BenchmarkItem> renderer = ReactRenderer.<BenchmarkItem>jsx("""
+                            ({item, select}) => <span onClick={select}>{item.value} <small>{item.status}</small></span>""")
+                    .withProperty("value", item -> item.value(index))
+                    .withProperty("status", BenchmarkItem::status, PropertyEncoding.dictionaryEncoded());
+            if(column == 0) {
+                renderer.withFunction("select", this::select);
+            }
+
+            grid.addColumn(renderer).setHeader("Column " + column);
+        }
+    }
+
+    private void addRowColumns(final int columns) {
+        final StringBuilder cells = new StringBuilder();
+        for(int column = 0; column < columns; column++) {
+            cells.append("<Cell name='c").append(column).append("'><span onClick={select}>{item.c").append(column).append("} <small>{item.status}</small></span></Cell>");
+        }
+
+        final ReactRendererDefinition.Builder<BenchmarkItem> definition = ReactRendererDefinition.<BenchmarkItem>builder("({item, Cell, select}) => <>" + cells + "</>", true)
+                .withProperty("status", BenchmarkItem::status, PropertyEncoding.dictionaryEncoded())
+                .withFunction("select", this::select);
+        for(int column = 0; column < columns; column++) {
+            final int index = column;
+            definition.withProperty("c" + column, item -> item.value(index));
+        }
+
+        final ReactRowRenderer<BenchmarkItem> renderer = ReactRowRenderer.of(definition.build());
+        for(int column = 0; column < columns; column++) {
+            grid.addColumn(renderer.cell("c" + column)).setHeader("Column " + column);
+        }
+    }
+
+    private void select(final BenchmarkItem item) {
+        grid.getDataProvider().refreshItem(item);
+    }
+
+    private record BenchmarkItem(int index) {
+
+        private String value(final int column) {
+            return "R" + index + "C" + column;
+        }
+
+        private String status() {
+            return STATUSES.get(index % STATUSES.size());
+        }
+
+    }
+
+}
@@ -1,5 +1,6 @@
 package com.oliveryasuna.vaadin.reactrenderer.demo;
 
+import com.oliveryasuna.vaadin.reactrenderer.PropertyEncoding;
 import com.oliveryasuna.vaadin.reactrenderer.ReactRenderer;
 import com.vaadin.flow.component.grid.Grid;
 import com.vaadin.flow.component.notification.Notification;
@@ -34,7 +35,7 @@ public final class GridView extends VerticalLayout {
                                   ({item}) => <span style={{
                                     color: item.status === 'Active' ? 'var(--lumo-success-text-color)' : 'var(--lumo-warning-text-color)',
                                   }}>{item.status}</span>""")
-                        .withProperty("status", Person::status))
+                        .withProperty("status", Person::status, PropertyEncoding.dictionaryEncoded()))
                 .setHeader("Status");
 
         grid.addColumn(ReactRenderer.<Person>jsx("""
@@ -0,0 +1,39 @@
+plugins {
+    id("java")
+    id("application")
+}
+
+dependencies {
+    // BOMs
+    implementation(platform(libs.spring.boot.bom))
+    implementation(platform(libs.vaadin.bom))
+
+    // Spring Boot
+    implementation("org.springframework.boot", "spring-boot")
+
+    // Vaadin
+    implementation("com.vaadin", "flow-server")
+
+    // Project
+    implementation(project(":react-renderer-demo"))
+}
+
+application {
+    mainClass = "com.oliveryasuna.vaadin.reactrenderer.loadtest.LoadTest"
+    applicationDefaultJvmArgs = listOf("-Xms2g", "-Xmx2g")
+}
+
+tasks.named<JavaExec>("run") {
+    // Forward load test options, e.g., `-Dloadtest.sessions=500`
+    systemProperties(System.getProperties()
+        .filterKeys { key -> key.toString().startsWith("loadtest.") || key.toString().startsWith("vaadin.") }
+        .mapKeys { entry -> entry.key.toString() })
+}
+
+configurations.all {
+    exclude("com.vaadin", "collaboration-engine")
+    exclude("com.vaadin", "copilot")
+    exclude("com.vaadin", "hilla-dev")
+    exclude("com.vaadin", "vaadin-material-theme")
+    exclude("com.vaadin.servletdetector", "throw-if-servlet3")
+}
@@ -0,0 +1,73 @@
+package com.oliveryasuna.vaadin.reactrenderer.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Records request latencies and computes percentiles over them.
+ * <p>
+ * Latencies are kept in full rather than in a histogram, which is exact and
+ * cheap enough for the number of requests of a local run.
+ */
+final class LatencyRecorder {
+
+    // Fields
+    //--------------------------------------------------
+
+    private long[] latencies;
+    private int size;
+
+    private long errors;
+
+    // Constructors
+    //--------------------------------------------------
+
+    LatencyRecorder() {
+        super();
+
+        this.latencies = new long[1024];
+    }
+
+    // Methods
+    //--------------------------------------------------
+
+    synchronized void record(final long latencyNanos) {
+        if(size == latencies.length) {
+            latencies = Arrays.copyOf(latencies, size * 2);
+        }
+
+        latencies[size++] = latencyNanos;
+    }
+
+    synchronized void recordError() {
+        errors++;
+    }
+
+    synchronized int count() {
+        return size;
+    }
+
+    synchronized long errors() {
+        return errors;
+    }
+
+    /**
+     * Returns the latency below which the given fraction of requests
+     * completed.
+     *
+     * @param percentile
+     *     The percentile, between {@code 0} and {@code 1}
+     * @return
+     *     The latency in nanoseconds, or {@code 0} if nothing was recorded
+     */
+    synchronized long percentile(final double percentile) {
+        if(size == 0) {
+            return 0;
+        }
+
+        final long[] sorted = Arrays.copyOf(latencies, size);
+        Arrays.sort(sorted);
+
+        return sorted[(int)Math.min(size - 1, Math.ceil(percentile * size) - 1)];
+    }
+
+}
@@ -0,0 +1,208 @@
+package com.oliveryasuna.vaadin.reactrenderer.loadtest;
+
+import com.oliveryasuna.vaadin.reactrenderer.demo.Application;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Boots the demo application in-process and drives simulated users against
+ * its {@code benchmark} view, reporting throughput, latency, heap per
+ * session and server CPU time.
+ * <p>
+ * Each simulated user has its own session and UI, and alternates between
+ * scrolling the grid and invoking a client callable of its renderers, with a
+ * think time in between. See {@link LoadTestConfig} for the options.
+ * <p>
+ * The heap per session is the growth of the heap after a full GC once all
+ * sessions are open, divided by their number.
+ * The simulated clients share a single HTTP client, created before the
+ * baseline is taken, so only their few fields of per-session state count
+ * towards it.
+ * Server CPU time is the CPU time of the servlet container's request
+ * threads.
+ */
+public final class LoadTest {
+
+    // Static fields
+    //--------------------------------------------------
+
+    private static final String LOCATION = "benchmark";
+
+    // Name prefix of the request threads of the embedded Tomcat
+    private static final String SERVER_THREAD_PREFIX = "http-nio-";
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    // Constructors
+    //--------------------------------------------------
+
+    private LoadTest() {
+        super();
+
+        throw new UnsupportedOperationException();
+    }
+
+    // Static methods
+    //--------------------------------------------------
+
+    public static void main(final String[] args) throws Exception {
+        final LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+
+        // Random port unless configured otherwise
+        final ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                .properties("server.port=0")
+                .run(args);
+        try {
+            final int port = ((WebServerApplicationContext)context).getWebServer().getPort();
+
+            run(config, URI.create("http://localhost:" + port + "/"));
+        } finally {
+            context.close();
+        }
+    }
+
+    private static void run(final LoadTestConfig config, final URI baseUri) throws Exception {
+        final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+        final HttpClient httpClient = UidlClient.createHttpClient();
+
+        // Warm up, which also makes sure the view works before going wide
+        final UidlClient warmUp = new UidlClient(baseUri, httpClient);
+        warmUp.open(LOCATION, config.query());
+        for(int i = 0; i < 100; i++) {
+            warmUp.scroll(ThreadLocalRandom.current().nextInt(Math.max(1, config.rows() - config.pageSize())), config.pageSize());
+            warmUp.invokeCallable(i);
+        }
+
+        final long baselineHeap = usedHeapAfterGc(memory);
+
+        // Ramp up
+        System.out.printf("Opening %d sessions over %d s%n", config.sessions(), config.rampUpSeconds());
+        final long openInterval = TimeUnit.SECONDS.toMillis(config.rampUpSeconds()) / Math.max(1, config.sessions());
+        final LatencyRecorder openLatencies = new LatencyRecorder();
+        final List<UidlClient> clients = new ArrayList<>(config.sessions());
+        for(int i = 0; i < config.sessions(); i++) {
+            final UidlClient client = new UidlClient(baseUri, httpClient);
+            final long start = System.nanoTime();
+            client.open(LOCATION, config.query());
+            client.scroll(0, config.pageSize());
+            openLatencies.record(System.nanoTime() - start);
+            clients.add(client);
+
+            Thread.sleep(openInterval);
+        }
+
+        final long sessionHeap = usedHeapAfterGc(memory) - baselineHeap;
+
+        // Drive
+        System.out.printf("Driving %d sessions for %d s%n", config.sessions(), config.durationSeconds());
+        final LatencyRecorder latencies = new LatencyRecorder();
+        final long serverCpuStart = serverCpuTime(threads);
+        final long processCpuStart = processCpuTime();
+        final long start = System.nanoTime();
+        final long deadline = start + TimeUnit.SECONDS.toNanos(config.durationSeconds());
+
+        final ExecutorService executor = Executors.newFixedThreadPool(config.sessions());
+        for(final UidlClient client : clients) {
+            executor.execute(() -> drive(client, config, deadline, latencies));
+        }
+        executor.shutdown();
+        executor.awaitTermination(config.durationSeconds() + 60L, TimeUnit.SECONDS);
+
+        final long elapsed = System.nanoTime() - start;
+        final long serverCpu = serverCpuTime(threads) - serverCpuStart;
+        final long processCpu = processCpuTime() - processCpuStart;
+
+        report(config, openLatencies, latencies, elapsed, sessionHeap, serverCpu, processCpu);
+    }
+
+    private static void drive(final UidlClient client, final LoadTestConfig config, final long deadline, final LatencyRecorder latencies) {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        while(System.nanoTime() < deadline) {
+            final long start = System.nanoTime();
+            try {
+                if(random.nextDouble() >= config.callableRatio() || !client.invokeCallable(random.nextInt(Integer.MAX_VALUE))) {
+                    client.scroll(random.nextInt(Math.max(1, config.rows() - config.pageSize())), config.pageSize());
+                }
+                latencies.record(System.nanoTime() - start);
+
+                Thread.sleep(config.thinkTimeMillis());
+            } catch(final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch(final Exception e) {
+                latencies.recordError();
+            }
+        }
+    }
+
+    private static long usedHeapAfterGc(final MemoryMXBean memory) throws InterruptedException {
+        for(int i = 0; i < 3; i++) {
+            memory.gc();
+            Thread.sleep(200);
+        }
+
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    private static long serverCpuTime(final ThreadMXBean threads) {
+        long cpuTime = 0;
+        for(final ThreadInfo thread : threads.getThreadInfo(threads.getAllThreadIds())) {
+            if(thread != null && thread.getThreadName().startsWith(SERVER_THREAD_PREFIX)) {
+                cpuTime += Math.max(0, threads.getThreadCpuTime(thread.getThreadId()));
+            }
+        }
+
+        return cpuTime;
+    }
+
+    private static long processCpuTime() {
+        if(ManagementFactory.getOperatingSystemMXBean() instanceof final com.sun.management.OperatingSystemMXBean os) {
+            return os.getProcessCpuTime();
+        }
+
+        return 0;
+    }
+
+    private static void report(
+            final LoadTestConfig config,
+            final LatencyRecorder openLatencies,
+            final LatencyRecorder latencies,
+            final long elapsedNanos,
+            final long sessionHeap,
+            final long serverCpuNanos,
+            final long processCpuNanos
+    ) {
+        final int requests = latencies.count();
+        final double seconds = elapsedNanos / 1_000_000_000.0;
+        final int processors = Runtime.getRuntime().availableProcessors();
+
+        System.out.println();
+        System.out.printf("Sessions:           %d (%s mode, %d columns, %d rows)%n", config.sessions(), config.mode(), config.columns(), config.rows());
+        System.out.printf("Session open:       p50 %.1f ms, p99 %.1f ms%n", openLatencies.percentile(0.5) / NANOS_PER_MILLI, openLatencies.percentile(0.99) / NANOS_PER_MILLI);
+        System.out.printf("Requests:           %d in %.1f s, %d errors%n", requests, seconds, latencies.errors());
+        System.out.printf("Throughput:         %.1f requests/s%n", requests / seconds);
+        System.out.printf("Latency:            p50 %.1f ms, p99 %.1f ms, max %.1f ms%n",
+                latencies.percentile(0.5) / NANOS_PER_MILLI, latencies.percentile(0.99) / NANOS_PER_MILLI, latencies.percentile(1.0) / NANOS_PER_MILLI);
+        System.out.printf("Heap per session:   %.1f KiB%n", sessionHeap / 1024.0 / Math.max(1, config.sessions()));
+        System.out.printf("Server CPU:         %.3f ms per request%n", (requests > 0 ? serverCpuNanos / NANOS_PER_MILLI / requests : 0.0));
+        System.out.printf("Process CPU:        %.1f %% of %d cores%n", 100.0 * processCpuNanos / elapsedNanos / processors, processors);
+    }
+
+}
@@ -0,0 +1,62 @@
+package com.oliveryasuna.vaadin.reactrenderer.loadtest;
+
+/**
+ * Configuration of a load test run, read from {@code loadtest.*} system
+ * properties.
+ *
+ * @param sessions
+ *     Number of simulated users, each with its own session
+ * @param rampUpSeconds
+ *     Time over which the sessions are opened
+ * @param durationSeconds
+ *     Time the sessions are driven for after ramp-up
+ * @param rows
+ *     Number of rows of the benchmark grid
+ * @param columns
+ *     Number of columns of the benchmark grid
+ * @param mode
+ *     {@code column} or {@code row}, see {@code BenchmarkView}
+ * @param pageSize
+ *     Number of rows requested per scroll
+ * @param thinkTimeMillis
+ *     Pause of each user between requests
+ * @param callableRatio
+ *     Fraction of requests that invoke a client callable rather than scroll
+ */
+record LoadTestConfig(
+        int sessions,
+        int rampUpSeconds,
+        int durationSeconds,
+        int rows,
+        int columns,
+        String mode,
+        int pageSize,
+        long thinkTimeMillis,
+        double callableRatio
+) {
+
+    // Static methods
+    //--------------------------------------------------
+
+    static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig(
+                Integer.getInteger("loadtest.sessions", 200),
+                Integer.getInteger("loadtest.rampUpSeconds", 20),
+                Integer.getInteger("loadtest.durationSeconds", 60),
+                Integer.getInteger("loadtest.rows", 10_000),
+                Integer.getInteger("loadtest.columns", 25),
+                System.getProperty("loadtest.mode", "column"),
+                Integer.getInteger("loadtest.pageSize", 50),
+                Long.getLong("loadtest.thinkTimeMillis", 250L),
+                Double.parseDouble(System.getProperty("loadtest.callableRatio", "0.1"))
+        );
+    }
+
+    // Methods
+    //--------------------------------------------------
+
+    String query() {
+        return "rows=" + rows + "&columns=" + columns + "&mode=" + mode;
+    }
+
+}
@@ -0,0 +1,429 @@
+package com.oliveryasuna.vaadin.reactrenderer.loadtest;
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+import elemental.json.JsonType;
+import elemental.json.JsonValue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A simulated browser that speaks the Flow UIDL protocol over HTTP.
+ * <p>
+ * The client opens a UI, navigates to a route, and then sends the RPCs the
+ * Grid web component and React renderers would send: viewport changes when
+ * scrolling and return channel calls when a client callable is invoked.
+ * It keeps track of what it needs for that from the responses, i.e., the
+ * node of the grid, the return channels of the renderers and the keys of
+ * the items sent to it.
+ * <p>
+ * Not thread-safe; each simulated user has its own client.
+ */
+final class UidlClient {
+
+    // Static fields
+    //--------------------------------------------------
+
+    // Node of the UI element, on which the router is called
+    private static final int UI_NODE = 1;
+
+    private static final String RESPONSE_PREFIX = "for(;;);";
+
+    // Calls in the expressions of ReactRendererBatch, capturing the parameter
+    // reference of the renderers and, for sets, those of the return channels
+    private static final Pattern UNSET_RENDERERS_PATTERN = Pattern.compile("Vaadin\\.unsetReactRenderers\\((\\$\\d+),");
+    private static final Pattern SET_RENDERERS_PATTERN = Pattern.compile("Vaadin\\.setReactRenderers\\((\\$\\d+), \\[[^\\]]*\\], \\[([^\\]]*)\\]\\)");
+
+    // Browser details sent when initializing a UI
+    private static final String BROWSER_DETAILS = "&v-sw=1920&v-sh=1080&v-wn=loadtest&v-bw=1920&v-bh=1080"
+            + "&v-tzo=0&v-rtzo=0&v-dstd=0&v-dston=false&v-tzid=UTC&v-curdate=0&v-td=false&v-pr=1&v-np=Linux";
+
+    // Fields
+    //--------------------------------------------------
+
+    private final URI baseUri;
+    private final HttpClient httpClient;
+    // Cookies of the session, by name; kept here rather than in the shared
+    // HTTP client, so that each client has its own session
+    private final Map<String, String> cookies;
+
+    private int uiId;
+    private String csrfToken;
+    private int syncId;
+    private int clientId;
+    private int nextPromiseId;
+
+    private int gridNode = -1;
+    // Channels of the client callables, by renderer ID
+    private final Map<String, List<Channel>> channels;
+    // Keys of the items last sent; keys of items scrolled out of view are
+    // dropped by the server
+    private Set<String> itemKeys;
+
+    // Constructors
+    //--------------------------------------------------
+
+    // The HTTP client is shared by all clients, so that their footprint does
+    // not count towards the server's, and must not handle cookies itself
+    UidlClient(final URI baseUri, final HttpClient httpClient) {
+        super();
+
+        this.baseUri = baseUri;
+        this.httpClient = httpClient;
+
+        this.cookies = new LinkedHashMap<>();
+        this.channels = new LinkedHashMap<>();
+        this.itemKeys = Set.of();
+    }
+
+    // Static methods
+    //--------------------------------------------------
+
+    /**
+     * Creates an HTTP client to share between {@link UidlClient}s.
+     *
+     * @return
+     *     A new HTTP client
+     */
+    static HttpClient createHttpClient() {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    private static String encode(final String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static JsonObject rpc(final String type, final int node) {
+        final JsonObject rpc = Json.createObject();
+        rpc.put("type", type);
+        rpc.put("node", node);
+
+        return rpc;
+    }
+
+    // Methods
+    //--------------------------------------------------
+
+    /**
+     * Opens a UI and navigates to a route.
+     *
+     * @param location
+     *     The route, e.g., {@code benchmark}
+     * @param query
+     *     The query string of the route, without {@code ?}
+     * @throws IOException
+     *     If a request fails
+     * @throws InterruptedException
+     *     If interrupted while waiting for a response
+     * @throws IllegalStateException
+     *     If the route does not contain a grid
+     */
+    void open(final String location, final String query) throws IOException, InterruptedException {
+        final HttpRequest.Builder request = HttpRequest.newBuilder(baseUri.resolve("?v-r=init&location=" + encode(location) + "&query=" + encode(query) + BROWSER_DETAILS))
+                .GET();
+        final JsonObject appConfig = Json.parse(send(request)).getObject("appConfig");
+
+        uiId = (int)appConfig.getNumber("v-uiId");
+        handleResponse(appConfig.getObject("uidl"));
+
+        // Eager navigation may already have rendered the route; otherwise,
+        // connect the client like the Flow router would
+        if(gridNode < 0) {
+            final JsonArray args = Json.createArray();
+            args.set(0, location);
+            args.set(1, query);
+            args.set(2, "");
+            args.set(3, Json.createNull());
+            args.set(4, "");
+            sendRpc(publishedEventHandler(UI_NODE, "connectClient", args));
+        }
+
+        if(gridNode < 0) {
+            throw new IllegalStateException("No grid found at route: " + location);
+        }
+    }
+
+    /**
+     * Requests the rows of a viewport, as the grid does when scrolled.
+     *
+     * @param start
+     *     The index of the first row
+     * @param length
+     *     The number of rows
+     * @throws IOException
+     *     If the request fails
+     * @throws InterruptedException
+     *     If interrupted while waiting for the response
+     */
+    void scroll(final int start, final int length) throws IOException, InterruptedException {
+        final JsonArray args = Json.createArray();
+        args.set(0, start);
+        args.set(1, length);
+
+        sendRpc(publishedEventHandler(gridNode, "setViewportRange", args));
+    }
+
+    /**
+     * Invokes a client callable of a renderer for an item the client has
+     * received.
+     *
+     * @param index
+     *     Picks the callable and item, modulo the number of each
+     * @return
+     *     {@code false} if no renderer with client callables or no item has
+     *     been received yet
+     * @throws IOException
+     *     If the request fails
+     * @throws InterruptedException
+     *     If interrupted while waiting for the response
+     */
+    boolean invokeCallable(final int index) throws IOException, InterruptedException {
+        final List<Channel> callables = channels.values().stream()
+                .flatMap(List::stream)
+                .toList();
+        if(callables.isEmpty() || itemKeys.isEmpty()) {
+            return false;
+        }
+
+        final Channel channel = callables.get(Math.floorMod(index, callables.size()));
+        final String itemKey = itemKeys.stream().skip(Math.floorMod(index, itemKeys.size())).findFirst().orElseThrow();
+
+        final JsonArray args = Json.createArray();
+        args.set(0, channel.callable());
+        args.set(1, itemKey);
+        args.set(2, Json.createArray());
+
+        final JsonObject rpc = rpc("channel", channel.node());
+        rpc.put("channel", channel.id());
+        rpc.put("args", args);
+        sendRpc(rpc);
+
+        return true;
+    }
+
+    private JsonObject publishedEventHandler(final int node, final String method, final JsonArray args) {
+        final JsonObject rpc = rpc("publishedEventHandler", node);
+        rpc.put("templateEventMethodName", method);
+        rpc.put("templateEventMethodArgs", args);
+        rpc.put("promise", nextPromiseId++);
+
+        return rpc;
+    }
+
+    private void sendRpc(final JsonObject rpc) throws IOException, InterruptedException {
+        final JsonArray rpcs = Json.createArray();
+        rpcs.set(0, rpc);
+
+        final JsonObject message = Json.createObject();
+        message.put("csrfToken", csrfToken);
+        message.put("rpc", rpcs);
+        message.put("syncId", syncId);
+        message.put("clientId", clientId);
+
+        final HttpRequest.Builder request = HttpRequest.newBuilder(baseUri.resolve("?v-r=uidl&v-uiId=" + uiId))
+                .header("Content-Type", "application/json; charset=UTF-8")
+                .POST(HttpRequest.BodyPublishers.ofString(message.toJson()));
+
+        String body = send(request);
+        if(body.startsWith(RESPONSE_PREFIX)) {
+            body = body.substring(RESPONSE_PREFIX.length());
+        }
+
+        final JsonValue response = Json.parse(body);
+        handleResponse((response.getType() == JsonType.ARRAY ? ((JsonArray)response).getObject(0) : (JsonObject)response));
+    }
+
+    private String send(final HttpRequest.Builder requestBuilder) throws IOException, InterruptedException {
+        if(!cookies.isEmpty()) {
+            final StringJoiner cookie = new StringJoiner("; ");
+            cookies.forEach((name, value) -> cookie.add(name + "=" + value));
+            requestBuilder.header("Cookie", cookie.toString());
+        }
+
+        final HttpRequest request = requestBuilder.build();
+        final HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if(response.statusCode() != 200) {
+            throw new IOException("Unexpected status " + response.statusCode() + " for " + request.uri());
+        }
+
+        for(final String setCookie : response.headers().allValues("Set-Cookie")) {
+            final String pair = setCookie.split(";", 2)[0];
+            final int separator = pair.indexOf('=');
+            if(separator > 0) {
+                cookies.put(pair.substring(0, separator).strip(), pair.substring(separator + 1).strip());
+            }
+        }
+
+        return response.body();
+    }
+
+    private void handleResponse(final JsonObject response) throws IOException {
+        if(response.hasKey("meta")) {
+            final JsonObject meta = response.getObject("meta");
+            if(meta.hasKey("appError")) {
+                throw new IOException("Application error: " + meta.getObject("appError").toJson());
+            }
+            if(meta.hasKey("sessionExpired")) {
+                throw new IOException("Session expired");
+            }
+        }
+
+        if(response.hasKey("Vaadin-Security-Key")) {
+            csrfToken = response.getString("Vaadin-Security-Key");
+        }
+        if(response.hasKey("syncId")) {
+            syncId = (int)response.getNumber("syncId");
+        }
+        clientId = (response.hasKey("clientId") ? (int)response.getNumber("clientId") : clientId + 1);
+
+        if(gridNode < 0 && response.hasKey("changes")) {
+            findGridNode(response.getArray("changes"));
+        }
+        if(response.hasKey("execute")) {
+            final Set<String> keys = new LinkedHashSet<>();
+            final JsonArray invocations = response.getArray("execute");
+            for(int i = 0; i < invocations.length(); i++) {
+                handleInvocation(invocations.getArray(i), keys);
+            }
+            if(!keys.isEmpty()) {
+                itemKeys = keys;
+            }
+        }
+    }
+
+    private void findGridNode(final JsonArray changes) {
+        for(int i = 0; i < changes.length(); i++) {
+            final JsonObject change = changes.getObject(i);
+            if(change.hasKey("key") && "tag".equals(change.getString("key"))
+                    && change.hasKey("value") && change.get("value").getType() == JsonType.STRING
+                    && "vaadin-grid".equals(change.getString("value"))) {
+                gridNode = (int)change.getNumber("node");
+                return;
+            }
+        }
+    }
+
+    // Invocations are arrays of their parameters followed by the expression
+    private void handleInvocation(final JsonArray invocation, final Set<String> keys) {
+        final String expression = invocation.getString(invocation.length() - 1);
+
+        for(int i = 0; i < invocation.length() - 1; i++) {
+            collectItemKeys(invocation.get(i), keys);
+        }
+
+        // Unsets come first in a batch, so re-registrations are kept
+        final Matcher unset = UNSET_RENDERERS_PATTERN.matcher(expression);
+        while(unset.find()) {
+            final List<JsonObject> renderers = new ArrayList<>();
+            collectRenderers(parameter(invocation, unset.group(1)), renderers);
+            renderers.forEach(renderer -> channels.remove(renderer.getString("rendererId")));
+        }
+
+        final Matcher set = SET_RENDERERS_PATTERN.matcher(expression);
+        while(set.find()) {
+            final List<JsonObject> renderers = new ArrayList<>();
+            collectRenderers(parameter(invocation, set.group(1)), renderers);
+            // Return channels are passed in the order of the renderers
+            final String[] returnChannels = set.group(2).split(",\\s*");
+
+            for(int i = 0; i < Math.min(renderers.size(), returnChannels.length); i++) {
+                final JsonObject renderer = renderers.get(i);
+                final int[] returnChannel = decodeReturnChannel(parameter(invocation, returnChannels[i]));
+                // Cells of row renderers have neither a return channel nor
+                // client callables
+                if(returnChannel == null || !renderer.hasKey("clientCallables")) {
+                    continue;
+                }
+
+                final JsonArray callables = renderer.getArray("clientCallables");
+                final List<Channel> rendererChannels = new ArrayList<>(callables.length());
+                for(int j = 0; j < callables.length(); j++) {
+                    rendererChannels.add(new Channel(returnChannel[0], returnChannel[1], callables.getString(j)));
+                }
+                channels.put(renderer.getString("rendererId"), rendererChannels);
+            }
+        }
+    }
+
+    // Resolves a parameter reference of an expression, e.g., $3
+    private static JsonValue parameter(final JsonArray invocation, final String reference) {
+        return invocation.get(Integer.parseInt(reference.strip().substring(1)));
+    }
+
+    private static void collectItemKeys(final JsonValue value, final Set<String> keys) {
+        if(value.getType() == JsonType.OBJECT) {
+            final JsonObject object = (JsonObject)value;
+            if(object.hasKey("key") && object.get("key").getType() == JsonType.STRING) {
+                keys.add(object.getString("key"));
+            }
+            for(final String key : object.keys()) {
+                collectItemKeys(object.get(key), keys);
+            }
+        } else if(value.getType() == JsonType.ARRAY) {
+            final JsonArray array = (JsonArray)value;
+            for(int i = 0; i < array.length(); i++) {
+                collectItemKeys(array.get(i), keys);
+            }
+        }
+    }
+
+    private static void collectRenderers(final JsonValue value, final List<JsonObject> renderers) {
+        if(value.getType() == JsonType.OBJECT) {
+            final JsonObject object = (JsonObject)value;
+            if(object.hasKey("rendererId")) {
+                renderers.add(object);
+            }
+        } else if(value.getType() == JsonType.ARRAY) {
+            final JsonArray array = (JsonArray)value;
+            for(int i = 0; i < array.length(); i++) {
+                collectRenderers(array.get(i), renderers);
+            }
+        }
+    }
+
+    // Return channels are encoded either as {"@v-return": [node, channel]} or
+    // with type information as [2, node, channel], depending on Flow version
+    private static int[] decodeReturnChannel(final JsonValue value) {
+        if(value.getType() == JsonType.OBJECT && ((JsonObject)value).hasKey("@v-return")) {
+            final JsonArray channel = ((JsonObject)value).getArray("@v-return");
+
+            return new int[] {(int)channel.getNumber(0), (int)channel.getNumber(1)};
+        } else if(value.getType() == JsonType.ARRAY) {
+            final JsonArray array = (JsonArray)value;
+            if(array.length() == 3 && array.get(0).getType() == JsonType.NUMBER && array.getNumber(0) == 2
+                    && array.get(1).getType() == JsonType.NUMBER && array.get(2).getType() == JsonType.NUMBER) {
+                return new int[] {(int)array.getNumber(1), (int)array.getNumber(2)};
+            }
+        }
+
+        return null;
+    }
+
+    // Nested
+    //--------------------------------------------------
+
+    private record Channel(int node, int id, String callable) {
+
+    }
+
+}
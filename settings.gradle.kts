@@ -90,3 +90,6 @@ project(":react-renderer").projectDir = file("addons/react-renderer/addon")
 
 include(":react-renderer-demo")
 project(":react-renderer-demo").projectDir = file("addons/react-renderer/demo")
+
+include(":react-renderer-loadtest")
+project(":react-renderer-loadtest").projectDir = file("addons/react-renderer/loadtest")